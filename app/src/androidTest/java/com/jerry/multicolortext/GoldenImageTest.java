@@ -0,0 +1,40 @@
+package com.jerry.multicolortext;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 离屏图层合成方式与参考实现的逐像素对比
+ * 不一致时参考图、待验证图和差异图输出到应用缓存目录的golden文件夹中
+ *
+ * @date 2026/10/19
+ */
+@RunWith(AndroidJUnit4.class)
+public class GoldenImageTest {
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    @Test
+    @UiThreadTest
+    public void layerBackendMatchesReference() throws IOException {
+        Context context = InstrumentationRegistry.getTargetContext();
+        GoldenImageVerifier verifier = new GoldenImageVerifier(context);
+        // 图片直接写入文件，大量组合不一致时也不会耗尽内存
+        verifier.setOutputDirectory(new File(context.getCacheDir(), "golden"));
+        List<GoldenImageVerifier.Mismatch> mismatchList = verifier.verify(MultiColorTextView.RENDER_BACKEND_LAYER);
+        assertTrue(mismatchList.toString(), mismatchList.isEmpty());
+    }
+}
@@ -0,0 +1,388 @@
+package com.jerry.multicolortext;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.View;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 金标准图片对比
+ * 用参考实现{@link MultiColorTextView#RENDER_BACKEND_REFERENCE}和待验证的合成方式分别绘制
+ * 所有样式（纯色、渐变、图案、描边、多行） × 形状 × 分割线 × 裁剪类型 × 角度 × 进度的组合，逐像素按通道容差对比，不一致时生成差异图
+ * 控件经过完整的测量、布局后通过{@link View#draw(Canvas)}绘制，由于依赖Bitmap和Canvas，需要在设备或模拟器上运行
+ * 组合很多，不一致的图片不会全部保留在内存中：设置了输出目录时立即写入文件并回收，否则只保留前几个组合的图片
+ *
+ * @date 2026/10/19
+ */
+
+public class GoldenImageVerifier {
+    /**
+     * 纯色、渐变、图案、描边、多行
+     */
+    private static final int VARIANT_PLAIN = 0, VARIANT_GRADIENT = 1, VARIANT_PATTERN = 2, VARIANT_STROKE = 3, VARIANT_MULTI_LINE = 4;
+    private static final int[] VARIANTS = {VARIANT_PLAIN, VARIANT_GRADIENT, VARIANT_PATTERN, VARIANT_STROKE, VARIANT_MULTI_LINE};
+    private static final String[] VARIANT_NAMES = {"plain", "gradient", "pattern", "stroke", "multiline"};
+    private static final int[] SHAPE_TYPES = {
+            MultiColorTextView.SHAPE_TYPE_RECT,
+            MultiColorTextView.SHAPE_TYPE_CIRCLE,
+            MultiColorTextView.SHAPE_TYPE_ROUND_RECT,
+            MultiColorTextView.SHAPE_TYPE_PATH
+    };
+    /**
+     * 自定义形状使用的Path数据（带圆弧的盾形）
+     */
+    private static final String SHAPE_PATH_DATA = "M12 1 L3 5 v6 c0 5.55 3.84 10.74 9 12 c5.16-1.26 9-6.45 9-12 V5 z";
+    private static final int[] DIVIDER_TYPES = {
+            MultiColorTextView.DIVIDER_TYPE_LINE,
+            MultiColorTextView.DIVIDER_TYPE_BESSEL,
+            MultiColorTextView.DIVIDER_TYPE_WAVE,
+            MultiColorTextView.DIVIDER_TYPE_SWEEP
+    };
+    private static final int[] CLIP_TYPES = {
+            MultiColorTextView.CLIP_TYPE_SHAPE,
+            MultiColorTextView.CLIP_TYPE_TEXT
+    };
+    /**
+     * 差异图中不一致像素的颜色
+     */
+    private static final int DIFF_COLOR = Color.RED;
+    /**
+     * 默认在内存中保留图片的不一致组合个数
+     */
+    private static final int DEFAULT_MAX_RETAINED_IMAGES = 8;
+
+    private final Context context;
+    private int width = 160, height = 120;
+    private String textContent = "Ag";
+    private int[] angles = {0, 30, 45, 90, 135, 180, 225, 270, 315};
+    private float[] progresses = {0, 0.01f, 0.25f, 0.5f, 0.75f, 0.99f, 1};
+    /**
+     * 每个通道允许的最大差值
+     */
+    private int tolerance = 2;
+    /**
+     * 不一致时图片的输出目录，为null时不输出
+     */
+    private File outputDirectory;
+    /**
+     * 没有输出目录时最多在内存中保留图片的不一致组合个数
+     */
+    private int maxRetainedImages = DEFAULT_MAX_RETAINED_IMAGES;
+
+    public GoldenImageVerifier(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * 对比参考实现与待验证的合成方式
+     *
+     * @param candidateBackend 待验证的合成方式
+     * @return 所有不一致的组合，全部一致时为空
+     * @throws IOException 输出图片失败
+     */
+    public List<Mismatch> verify(int candidateBackend) throws IOException {
+        if (outputDirectory != null && !outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Cannot create directory " + outputDirectory);
+        }
+        List<Mismatch> mismatchList = new ArrayList<>();
+        int retainedImageCount = 0;
+        Bitmap referenceBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Bitmap candidateBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas referenceCanvas = new Canvas(referenceBitmap);
+        Canvas candidateCanvas = new Canvas(candidateBitmap);
+        int[] referencePixels = new int[width * height];
+        int[] candidatePixels = new int[width * height];
+        int[] diffPixels = new int[width * height];
+        Bitmap pattern = createPattern();
+
+        for (int variant : VARIANTS) {
+            for (int shapeType : SHAPE_TYPES) {
+                for (int dividerType : DIVIDER_TYPES) {
+                    for (int clipType : CLIP_TYPES) {
+                        MultiColorStyle.Builder builder = new MultiColorStyle.Builder(context)
+                                .setShapeType(shapeType)
+                                .setShapePathData(SHAPE_PATH_DATA)
+                                .setDividerType(dividerType)
+                                .setClipType(clipType)
+                                .setTextSize(height / 2)
+                                // 固定水波纹相位，保证两次绘制一致
+                                .setWaveDuration(0);
+                        applyVariant(builder, variant, pattern);
+                        MultiColorTextView view = new MultiColorTextView(context, builder.build());
+                        view.setTextContent(variant == VARIANT_MULTI_LINE ? textContent + "\n" + textContent : textContent);
+                        // 与在布局中一样经过测量和布局
+                        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+                        view.layout(0, 0, width, height);
+
+                        for (int angle : angles) {
+                            for (float progress : progresses) {
+                                view.setDividerAngle(angle);
+                                view.setFillProgress(progress);
+
+                                referenceBitmap.eraseColor(Color.TRANSPARENT);
+                                view.setRenderBackend(MultiColorTextView.RENDER_BACKEND_REFERENCE);
+                                view.draw(referenceCanvas);
+
+                                candidateBitmap.eraseColor(Color.TRANSPARENT);
+                                view.setRenderBackend(candidateBackend);
+                                view.draw(candidateCanvas);
+
+                                referenceBitmap.getPixels(referencePixels, 0, width, 0, 0, width, height);
+                                candidateBitmap.getPixels(candidatePixels, 0, width, 0, 0, width, height);
+                                Mismatch mismatch = compare(referencePixels, candidatePixels);
+                                if (mismatch != null) {
+                                    mismatch.name = String.format(Locale.US, "%s_shape%d_divider%d_clip%d_angle%d_progress%.2f",
+                                            VARIANT_NAMES[variant], shapeType, dividerType, clipType, angle, progress);
+                                    if (outputDirectory != null) {
+                                        fillDiffPixels(referencePixels, candidatePixels, diffPixels);
+                                        writeImages(mismatch.name, referencePixels, candidatePixels, diffPixels);
+                                    } else if (retainedImageCount < maxRetainedImages) {
+                                        fillDiffPixels(referencePixels, candidatePixels, diffPixels);
+                                        mismatch.reference = createImage(referencePixels);
+                                        mismatch.candidate = createImage(candidatePixels);
+                                        mismatch.diff = createImage(diffPixels);
+                                        retainedImageCount++;
+                                    }
+                                    mismatchList.add(mismatch);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        referenceBitmap.recycle();
+        candidateBitmap.recycle();
+        pattern.recycle();
+        return mismatchList;
+    }
+
+    /**
+     * 按样式类型设置填充、描边和排版
+     *
+     * @param builder 样式
+     * @param variant 样式类型
+     * @param pattern 图案
+     */
+    private void applyVariant(MultiColorStyle.Builder builder, int variant, Bitmap pattern) {
+        switch (variant) {
+            case VARIANT_GRADIENT: {
+                builder.setGradientType(MultiColorTextView.GRADIENT_TYPE_LINEAR)
+                        .setGradientAngle(30)
+                        .setBgEndColor(Color.YELLOW)
+                        .setFgEndColor(Color.BLUE);
+                break;
+            }
+            case VARIANT_PATTERN: {
+                builder.setBgPattern(pattern)
+                        .setFgPattern(pattern);
+                break;
+            }
+            case VARIANT_STROKE: {
+                builder.setStrokeType(MultiColorTextView.STROKE_TYPE_BORDER | MultiColorTextView.STROKE_TYPE_TEXT)
+                        .setStrokeWidth(3)
+                        .setStrokeColor(Color.MAGENTA)
+                        .setFilledStrokeColor(Color.CYAN);
+                break;
+            }
+            case VARIANT_MULTI_LINE: {
+                builder.setMaxLines(2)
+                        .setTextSize(height / 4);
+                break;
+            }
+            case VARIANT_PLAIN:
+            default: {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 创建棋盘格图案
+     *
+     * @return 图案
+     */
+    private static Bitmap createPattern() {
+        final int cellSize = 4;
+        Bitmap pattern = Bitmap.createBitmap(cellSize * 2, cellSize * 2, Bitmap.Config.ARGB_8888);
+        for (int x = 0; x < cellSize * 2; x++) {
+            for (int y = 0; y < cellSize * 2; y++) {
+                pattern.setPixel(x, y, (x / cellSize + y / cellSize) % 2 == 0 ? Color.DKGRAY : Color.LTGRAY);
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * 逐像素对比
+     *
+     * @param referencePixels 参考实现的像素
+     * @param candidatePixels 待验证的像素
+     * @return 不一致信息（不含图片），全部在容差内时返回null
+     */
+    private Mismatch compare(int[] referencePixels, int[] candidatePixels) {
+        int mismatchedPixels = 0, maxChannelDelta = 0;
+        for (int i = 0; i < referencePixels.length; i++) {
+            int delta = getChannelDelta(referencePixels[i], candidatePixels[i]);
+            maxChannelDelta = Math.max(maxChannelDelta, delta);
+            if (delta > tolerance) {
+                mismatchedPixels++;
+            }
+        }
+        if (mismatchedPixels == 0) {
+            return null;
+        }
+
+        Mismatch mismatch = new Mismatch();
+        mismatch.mismatchedPixels = mismatchedPixels;
+        mismatch.maxChannelDelta = maxChannelDelta;
+        return mismatch;
+    }
+
+    /**
+     * 生成差异图：不一致的像素标红，一致的像素淡化显示，便于看清不一致的位置
+     *
+     * @param referencePixels 参考实现的像素
+     * @param candidatePixels 待验证的像素
+     * @param diffPixels      输出的差异图像素
+     */
+    private void fillDiffPixels(int[] referencePixels, int[] candidatePixels, int[] diffPixels) {
+        for (int i = 0; i < referencePixels.length; i++) {
+            int reference = referencePixels[i];
+            diffPixels[i] = getChannelDelta(reference, candidatePixels[i]) > tolerance ? DIFF_COLOR
+                    : Color.argb(Color.alpha(reference) / 4, Color.red(reference), Color.green(reference), Color.blue(reference));
+        }
+    }
+
+    /**
+     * @return 两个颜色各通道差值的最大值
+     */
+    private static int getChannelDelta(int reference, int candidate) {
+        return Math.max(Math.max(Math.abs(Color.alpha(reference) - Color.alpha(candidate)), Math.abs(Color.red(reference) - Color.red(candidate))),
+                Math.max(Math.abs(Color.green(reference) - Color.green(candidate)), Math.abs(Color.blue(reference) - Color.blue(candidate))));
+    }
+
+    private Bitmap createImage(int[] pixels) {
+        return Bitmap.createBitmap(pixels, width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * 将一个不一致的组合输出为PNG（参考图、待验证图、差异图），写完立即回收
+     *
+     * @param name            组合名称
+     * @param referencePixels 参考实现的像素
+     * @param candidatePixels 待验证的像素
+     * @param diffPixels      差异图像素
+     * @throws IOException 写入失败
+     */
+    private void writeImages(String name, int[] referencePixels, int[] candidatePixels, int[] diffPixels) throws IOException {
+        writePng(referencePixels, new File(outputDirectory, name + "_reference.png"));
+        writePng(candidatePixels, new File(outputDirectory, name + "_candidate.png"));
+        writePng(diffPixels, new File(outputDirectory, name + "_diff.png"));
+    }
+
+    private void writePng(int[] pixels, File file) throws IOException {
+        Bitmap bitmap = createImage(pixels);
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
+        } finally {
+            outputStream.close();
+            bitmap.recycle();
+        }
+    }
+
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public void setTextContent(String textContent) {
+        this.textContent = textContent;
+    }
+
+    public void setAngles(int... angles) {
+        this.angles = angles;
+    }
+
+    public void setProgresses(float... progresses) {
+        this.progresses = progresses;
+    }
+
+    public void setTolerance(int tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * 设置输出目录，设置后不一致组合的图片立即写入该目录，不保留在内存中
+     *
+     * @param outputDirectory 输出目录，为null时不输出
+     */
+    public void setOutputDirectory(File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * 设置没有输出目录时最多在内存中保留图片的不一致组合个数，之后的组合只记录统计信息
+     *
+     * @param maxRetainedImages 个数
+     */
+    public void setMaxRetainedImages(int maxRetainedImages) {
+        this.maxRetainedImages = maxRetainedImages;
+    }
+
+    /**
+     * 一个不一致的组合
+     * 图片（参考图、待验证图、差异图）只在没有输出目录且未超过保留个数时才有，否则为null
+     */
+    public static class Mismatch {
+        private String name;
+        private int mismatchedPixels;
+        private int maxChannelDelta;
+        private Bitmap reference;
+        private Bitmap candidate;
+        private Bitmap diff;
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMismatchedPixels() {
+            return mismatchedPixels;
+        }
+
+        public int getMaxChannelDelta() {
+            return maxChannelDelta;
+        }
+
+        public Bitmap getReference() {
+            return reference;
+        }
+
+        public Bitmap getCandidate() {
+            return candidate;
+        }
+
+        public Bitmap getDiff() {
+            return diff;
+        }
+
+        @Override
+        public String toString() {
+            return "Mismatch{" +
+                    "name='" + name + '\'' +
+                    ", mismatchedPixels=" + mismatchedPixels +
+                    ", maxChannelDelta=" + maxChannelDelta +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.LinearGradient;
+import android.graphics.RadialGradient;
+import android.graphics.Shader;
+
+/**
+ * 渐变和图案填充的着色器缓存
+ * 同一组（填充类型、颜色、角度、图案、尺寸）只创建一次着色器，进度和角度变化时直接复用
+ *
+ * @date 2026/10/19
+ */
+
+class FillShaderCache {
+    private int gradientType;
+    private int gradientAngle;
+    private int startColor, endColor;
+    private Bitmap pattern;
+    private int width, height;
+    private boolean hasShader;
+
+    private Shader shader;
+
+    /**
+     * 获取着色器，只有参数变化时才重新创建
+     *
+     * @param gradientType  渐变类型
+     * @param gradientAngle 线性渐变的角度
+     * @param startColor    渐变起始颜色
+     * @param endColor      渐变结束颜色
+     * @param pattern       填充图案，不为null时优先于渐变
+     * @param width         控件宽度
+     * @param height        控件高度
+     * @return 着色器，纯色填充时返回null
+     */
+    Shader obtain(int gradientType, int gradientAngle, int startColor, int endColor, Bitmap pattern, int width, int height) {
+        boolean hit = hasShader && this.gradientType == gradientType && this.gradientAngle == gradientAngle
+                && this.startColor == startColor && this.endColor == endColor && this.pattern == pattern
+                && this.width == width && this.height == height;
+        RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_FILL_SHADER, hit);
+        if (hit) {
+            return shader;
+        }
+        this.gradientType = gradientType;
+        this.gradientAngle = gradientAngle;
+        this.startColor = startColor;
+        this.endColor = endColor;
+        this.pattern = pattern;
+        this.width = width;
+        this.height = height;
+        shader = createShader();
+        hasShader = true;
+        return shader;
+    }
+
+    private Shader createShader() {
+        if (pattern != null) {
+            // 图案与尺寸无关，平铺填满整个控件
+            return new BitmapShader(pattern, Shader.TileMode.REPEAT, Shader.TileMode.REPEAT);
+        }
+        switch (gradientType) {
+            case MultiColorTextView.GRADIENT_TYPE_LINEAR: {
+                // 渐变线穿过控件中心，长度为控件在渐变方向上的投影，保证两端颜色恰好落在控件边缘
+                double radians = Math.toRadians(gradientAngle);
+                float cos = (float) Math.cos(radians), sin = (float) Math.sin(radians);
+                float halfLength = (Math.abs(width * cos) + Math.abs(height * sin)) / 2;
+                float centerX = width / 2.0f, centerY = height / 2.0f;
+                return new LinearGradient(centerX - cos * halfLength, centerY - sin * halfLength,
+                        centerX + cos * halfLength, centerY + sin * halfLength, startColor, endColor, Shader.TileMode.CLAMP);
+            }
+            case MultiColorTextView.GRADIENT_TYPE_RADIAL: {
+                // 半径取对角线的一半，结束颜色恰好落在四个角上
+                float radius = (float) Math.hypot(width, height) / 2;
+                return new RadialGradient(width / 2.0f, height / 2.0f, Math.max(radius, 1), startColor, endColor, Shader.TileMode.CLAMP);
+            }
+            default: {
+                return null;
+            }
+        }
+    }
+}
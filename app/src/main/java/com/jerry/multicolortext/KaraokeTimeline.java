@@ -0,0 +1,152 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.TextUtils;
+
+import com.jerry.multicolortext.MultiColorTextView.KaraokeEntry;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * 卡拉OK时间轴
+ * 字符宽度只在文字、字号或字体变化时测量一次，播放时间通过二分查找映射到文字上的横向偏移
+ *
+ * @date 2026/10/19
+ */
+
+class KaraokeTimeline {
+    /**
+     * 按开始时间排序的歌词条目
+     */
+    private final KaraokeEntry[] entries;
+    /**
+     * 最后一个条目的结束时间（毫秒），条目不会变化，创建时计算一次
+     */
+    private final long endTime;
+
+    private String text;
+    private float textSize;
+    private Typeface typeface;
+    /**
+     * 每个字符起始位置相对文字起点的偏移，长度为字符数加1，最后一个值即文字总宽度
+     */
+    private float[] glyphOffsets;
+
+    KaraokeTimeline(Collection<KaraokeEntry> entryCollection) {
+        entries = entryCollection.toArray(new KaraokeEntry[entryCollection.size()]);
+        Arrays.sort(entries, new Comparator<KaraokeEntry>() {
+            @Override
+            public int compare(KaraokeEntry o1, KaraokeEntry o2) {
+                return o1.getStartTime() < o2.getStartTime() ? -1 : (o1.getStartTime() == o2.getStartTime() ? 0 : 1);
+            }
+        });
+        long endTime = Long.MIN_VALUE;
+        for (KaraokeEntry entry : entries) {
+            endTime = Math.max(endTime, entry.getEndTime());
+        }
+        this.endTime = endTime;
+    }
+
+    /**
+     * 测量字符宽度，只有文字、字号或字体变化时才重新测量
+     *
+     * @param paint 绘制文字的画笔
+     * @param text  文字内容
+     * @return 是否重新测量了
+     */
+    boolean measure(Paint paint, String text) {
+        if (glyphOffsets != null && TextUtils.equals(this.text, text)
+                && textSize == paint.getTextSize() && typeface == paint.getTypeface()) {
+            RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_KARAOKE, true);
+            return false;
+        }
+        RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_KARAOKE, false);
+        this.text = text;
+        this.textSize = paint.getTextSize();
+        this.typeface = paint.getTypeface();
+
+        int length = text == null ? 0 : text.length();
+        float[] widths = new float[length];
+        if (length > 0) {
+            paint.getTextWidths(text, widths);
+        }
+        setGlyphWidths(widths);
+        return true;
+    }
+
+    /**
+     * 按字符宽度计算每个字符的起始偏移
+     *
+     * @param widths 每个字符的宽度
+     */
+    void setGlyphWidths(float[] widths) {
+        glyphOffsets = new float[widths.length + 1];
+        for (int i = 0; i < widths.length; i++) {
+            glyphOffsets[i + 1] = glyphOffsets[i] + widths[i];
+        }
+    }
+
+    /**
+     * @return 最后一个条目的结束时间（毫秒），之后进度不再变化
+     */
+    long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * @return 文字总宽度
+     */
+    float getTotalWidth() {
+        return glyphOffsets == null ? 0 : glyphOffsets[glyphOffsets.length - 1];
+    }
+
+    /**
+     * 获取播放时间对应的横向偏移
+     * 在条目内按时间线性推进，两个条目之间停留在上一个条目的末尾
+     *
+     * @param time 播放时间（毫秒）
+     * @return 相对文字起点的偏移
+     */
+    float getOffset(long time) {
+        if (glyphOffsets == null) {
+            return 0;
+        }
+        int index = findEntry(time);
+        if (index < 0) {
+            return 0;
+        }
+        KaraokeEntry entry = entries[index];
+        float startOffset = getGlyphOffset(entry.getStart());
+        float endOffset = getGlyphOffset(entry.getEnd());
+        long duration = entry.getEndTime() - entry.getStartTime();
+        float fraction = duration <= 0 ? 1 : Math.min(1, (time - entry.getStartTime()) * 1.0f / duration);
+        return startOffset + (endOffset - startOffset) * fraction;
+    }
+
+    /**
+     * 二分查找最后一个开始时间不晚于给定时间的条目
+     *
+     * @param time 播放时间（毫秒）
+     * @return 条目下标，没有则返回-1
+     */
+    private int findEntry(long time) {
+        int low = 0, high = entries.length - 1, result = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (entries[middle].getStartTime() <= time) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    private float getGlyphOffset(int index) {
+        return glyphOffsets[Math.max(0, Math.min(index, glyphOffsets.length - 1))];
+    }
+}
@@ -51,10 +51,11 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void initData() {
-        dividerTypeArray = new TypeBean[3];
+        dividerTypeArray = new TypeBean[4];
         dividerTypeArray[0] = new TypeBean("直线", MultiColorTextView.DIVIDER_TYPE_LINE);
         dividerTypeArray[1] = new TypeBean("贝塞尔曲线", MultiColorTextView.DIVIDER_TYPE_BESSEL);
         dividerTypeArray[2] = new TypeBean("水波纹", MultiColorTextView.DIVIDER_TYPE_WAVE);
+        dividerTypeArray[3] = new TypeBean("扇形", MultiColorTextView.DIVIDER_TYPE_SWEEP);
         TypeSpinnerAdapter orientationAdapter = new TypeSpinnerAdapter(this, dividerTypeArray);
         spinnerDividerType.setAdapter(orientationAdapter);
 
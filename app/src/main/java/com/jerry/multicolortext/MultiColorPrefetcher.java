@@ -0,0 +1,163 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Picture;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 空闲时预取
+ * 列表绑定数据后调用{@link MultiColorPrefetcher#prefetch(MultiColorTextView, int, int)}，
+ * 在主线程空闲时按时间预算逐个测量文字、生成轮廓，并可选地在后台线程把内容预合成到单独的位图中，
+ * 完成后在主线程换上，之后第一次onDraw只需要绘制位图
+ * 只能在主线程使用
+ *
+ * @date 2026/10/19
+ */
+
+public final class MultiColorPrefetcher {
+    /**
+     * 默认每次空闲的时间预算（纳秒）
+     */
+    private static final long DEFAULT_FRAME_BUDGET_NANOS = 4000000;
+
+    /**
+     * 后台光栅化线程（所有预取器共享）
+     */
+    private static ExecutorService rasterExecutor;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    /**
+     * 等待预取的控件和尺寸，按加入顺序处理，同一控件只保留最后一次的尺寸
+     */
+    private final LinkedHashMap<MultiColorTextView, int[]> pendingViews = new LinkedHashMap<>();
+    private final MessageQueue.IdleHandler idleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            return processPending();
+        }
+    };
+    private boolean idleHandlerAdded;
+
+    private long frameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private boolean precompositeEnabled;
+
+    /**
+     * 请求预取
+     *
+     * @param view   控件（已设置好要显示的内容）
+     * @param width  控件将要显示的宽度
+     * @param height 控件将要显示的高度
+     */
+    public void prefetch(MultiColorTextView view, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        pendingViews.remove(view);
+        pendingViews.put(view, new int[]{width, height});
+        if (!idleHandlerAdded) {
+            idleHandlerAdded = true;
+            Looper.myQueue().addIdleHandler(idleHandler);
+        }
+    }
+
+    /**
+     * 取消尚未开始的预取（例如控件被回收时）
+     *
+     * @param view 控件
+     */
+    public void cancel(MultiColorTextView view) {
+        pendingViews.remove(view);
+    }
+
+    /**
+     * 取消所有尚未开始的预取
+     */
+    public void clear() {
+        pendingViews.clear();
+        if (idleHandlerAdded) {
+            idleHandlerAdded = false;
+            Looper.myQueue().removeIdleHandler(idleHandler);
+        }
+    }
+
+    /**
+     * 设置每次空闲的时间预算，超出后剩余的控件留到下一次空闲
+     *
+     * @param frameBudgetNanos 时间预算（纳秒）
+     */
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * 设置是否在后台线程预合成内容
+     * 开启后每个控件最多保留两张与控件同样大小的位图（正在显示的和备用的）
+     *
+     * @param precompositeEnabled 是否预合成
+     */
+    public void setPrecompositeEnabled(boolean precompositeEnabled) {
+        this.precompositeEnabled = precompositeEnabled;
+    }
+
+    /**
+     * 在时间预算内处理等待的控件（至少处理一个，避免预算过小时永远无法推进）
+     *
+     * @return 是否还有等待的控件
+     */
+    private boolean processPending() {
+        long startTime = System.nanoTime();
+        Iterator<Map.Entry<MultiColorTextView, int[]>> iterator = pendingViews.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<MultiColorTextView, int[]> entry = iterator.next();
+            iterator.remove();
+            prefetchView(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+            if (System.nanoTime() - startTime >= frameBudgetNanos) {
+                break;
+            }
+        }
+        idleHandlerAdded = !pendingViews.isEmpty();
+        return idleHandlerAdded;
+    }
+
+    private void prefetchView(final MultiColorTextView view, int width, int height) {
+        // 录制在主线程进行（只记录指令），Picture录制完成后不再变化，可以安全地在后台线程光栅化
+        final Picture picture = view.prefetchContent(width, height, precompositeEnabled);
+        if (picture == null) {
+            return;
+        }
+        final int version = view.getContentVersion();
+        final int sequence = view.beginPrefetch();
+        // 光栅化到单独的位图中，完成后在主线程换上，不会写入正在显示的位图
+        final Bitmap bitmap = view.obtainPrefetchBitmap(width, height);
+        getRasterExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                bitmap.eraseColor(Color.TRANSPARENT);
+                new Canvas(bitmap).drawPicture(picture);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        view.finishPrefetch(sequence, version, bitmap);
+                    }
+                });
+            }
+        });
+    }
+
+    private static synchronized ExecutorService getRasterExecutor() {
+        if (rasterExecutor == null) {
+            rasterExecutor = Executors.newSingleThreadExecutor();
+        }
+        return rasterExecutor;
+    }
+}
@@ -0,0 +1,675 @@
+package com.jerry.multicolortext;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.support.v4.content.ContextCompat;
+import android.text.Layout;
+import android.util.LruCache;
+import android.util.TypedValue;
+import android.view.Gravity;
+
+/**
+ * 多颜色文字的样式
+ * 不可变且已解析好所有属性，可以只创建一次后在多个控件间共享，
+ * 通过{@link MultiColorTextView#MultiColorTextView(Context, MultiColorStyle)}或{@link MultiColorTextView#applyStyle(MultiColorStyle)}一次性应用
+ *
+ * @date 2026/10/19
+ */
+
+public final class MultiColorStyle {
+    /**
+     * xml中图案资源转换后的位图缓存（按资源id，所有控件共享）
+     */
+    private static final LruCache<Integer, Bitmap> PATTERN_CACHE = new LruCache<>(16);
+
+    private final int textSize;
+    private final boolean autoSize;
+    private final int autoSizeMinTextSize;
+    private final int autoSizeMaxTextSize;
+    private final int maxLines;
+    private final Layout.Alignment layoutAlignment;
+    private final int bgColor;
+    private final int fgColor;
+    private final int gradientType;
+    private final int gradientAngle;
+    private final int bgEndColor;
+    private final int fgEndColor;
+    private final Bitmap bgPattern;
+    private final Bitmap fgPattern;
+    private final int strokeType;
+    private final float strokeWidth;
+    private final int strokeColor;
+    private final int filledStrokeColor;
+    private final int shapeType;
+    private final String shapePathData;
+    private final int clipType;
+    private final int dividerType;
+    private final int dividerAngle;
+    private final float waveAmplitude;
+    private final float waveLength;
+    private final int waveDuration;
+    private final int touchMode;
+    private final boolean touchPrediction;
+    private final boolean autoLayer;
+    private final int layerSettleDelay;
+
+    private MultiColorStyle(Builder builder) {
+        this.textSize = builder.textSize;
+        this.autoSize = builder.autoSize;
+        this.autoSizeMinTextSize = builder.autoSizeMinTextSize;
+        this.autoSizeMaxTextSize = builder.autoSizeMaxTextSize;
+        this.maxLines = builder.maxLines;
+        this.layoutAlignment = builder.layoutAlignment;
+        this.bgColor = builder.bgColor;
+        this.fgColor = builder.fgColor;
+        this.gradientType = builder.gradientType;
+        this.gradientAngle = builder.gradientAngle;
+        // 没有设置结束颜色时与起始颜色相同
+        this.bgEndColor = builder.bgEndColor != null ? builder.bgEndColor : builder.bgColor;
+        this.fgEndColor = builder.fgEndColor != null ? builder.fgEndColor : builder.fgColor;
+        this.bgPattern = builder.bgPattern;
+        this.fgPattern = builder.fgPattern;
+        this.strokeType = builder.strokeType;
+        this.strokeWidth = builder.strokeWidth;
+        // 没有设置描边颜色时与前景色相同，填充区域与填充一样颜色相反
+        this.strokeColor = builder.strokeColor != null ? builder.strokeColor : builder.fgColor;
+        this.filledStrokeColor = builder.filledStrokeColor != null ? builder.filledStrokeColor : builder.bgColor;
+        this.shapeType = builder.shapeType;
+        this.shapePathData = builder.shapePathData;
+        this.clipType = builder.clipType;
+        this.dividerType = builder.dividerType;
+        this.dividerAngle = builder.dividerAngle;
+        this.waveAmplitude = builder.waveAmplitude;
+        this.waveLength = builder.waveLength;
+        this.waveDuration = builder.waveDuration;
+        this.touchMode = builder.touchMode;
+        this.touchPrediction = builder.touchPrediction;
+        this.autoLayer = builder.autoLayer;
+        this.layerSettleDelay = builder.layerSettleDelay;
+    }
+
+    /**
+     * 从xml属性中解析样式
+     *
+     * @param context    上下文
+     * @param typedArray xml属性
+     * @return 样式
+     */
+    static MultiColorStyle fromTypedArray(Context context, TypedArray typedArray) {
+        Builder builder = new Builder(context);
+        builder.textSize = typedArray.getDimensionPixelSize(R.styleable.MultiColorTextView_android_textSize, builder.textSize);
+        builder.autoSize = typedArray.getBoolean(R.styleable.MultiColorTextView_auto_size, builder.autoSize);
+        builder.autoSizeMinTextSize = typedArray.getDimensionPixelSize(R.styleable.MultiColorTextView_auto_size_min_text_size, builder.autoSizeMinTextSize);
+        builder.autoSizeMaxTextSize = typedArray.getDimensionPixelSize(R.styleable.MultiColorTextView_auto_size_max_text_size, builder.autoSizeMaxTextSize);
+        builder.maxLines = typedArray.getInt(R.styleable.MultiColorTextView_android_maxLines, builder.maxLines);
+        builder.layoutAlignment = getLayoutAlignment(typedArray.getInt(R.styleable.MultiColorTextView_android_gravity, Gravity.CENTER));
+        builder.bgColor = typedArray.getInt(R.styleable.MultiColorTextView_background_color, builder.bgColor);
+        builder.fgColor = typedArray.getInt(R.styleable.MultiColorTextView_foreground_color, builder.fgColor);
+        builder.gradientType = typedArray.getInt(R.styleable.MultiColorTextView_gradient_type, builder.gradientType);
+        builder.gradientAngle = typedArray.getInt(R.styleable.MultiColorTextView_gradient_angle, builder.gradientAngle);
+        if (typedArray.hasValue(R.styleable.MultiColorTextView_background_end_color)) {
+            builder.bgEndColor = typedArray.getInt(R.styleable.MultiColorTextView_background_end_color, builder.bgColor);
+        }
+        if (typedArray.hasValue(R.styleable.MultiColorTextView_foreground_end_color)) {
+            builder.fgEndColor = typedArray.getInt(R.styleable.MultiColorTextView_foreground_end_color, builder.fgColor);
+        }
+        builder.bgPattern = getPatternBitmap(typedArray, R.styleable.MultiColorTextView_background_pattern);
+        builder.fgPattern = getPatternBitmap(typedArray, R.styleable.MultiColorTextView_foreground_pattern);
+        builder.strokeType = typedArray.getInt(R.styleable.MultiColorTextView_stroke_type, builder.strokeType);
+        builder.strokeWidth = typedArray.getDimension(R.styleable.MultiColorTextView_stroke_width, builder.strokeWidth);
+        if (typedArray.hasValue(R.styleable.MultiColorTextView_stroke_color)) {
+            builder.strokeColor = typedArray.getInt(R.styleable.MultiColorTextView_stroke_color, builder.fgColor);
+        }
+        if (typedArray.hasValue(R.styleable.MultiColorTextView_filled_stroke_color)) {
+            builder.filledStrokeColor = typedArray.getInt(R.styleable.MultiColorTextView_filled_stroke_color, builder.bgColor);
+        }
+        builder.shapeType = typedArray.getInt(R.styleable.MultiColorTextView_shape_type, builder.shapeType);
+        builder.shapePathData = typedArray.getString(R.styleable.MultiColorTextView_shape_path_data);
+        builder.clipType = typedArray.getInt(R.styleable.MultiColorTextView_clip_type, builder.clipType);
+        builder.dividerType = typedArray.getInt(R.styleable.MultiColorTextView_divider_type, builder.dividerType);
+        builder.dividerAngle = typedArray.getInt(R.styleable.MultiColorTextView_divider_angle, builder.dividerAngle);
+        builder.waveAmplitude = typedArray.getDimension(R.styleable.MultiColorTextView_wave_amplitude, builder.waveAmplitude);
+        builder.waveLength = typedArray.getDimension(R.styleable.MultiColorTextView_wave_length, builder.waveLength);
+        builder.waveDuration = typedArray.getInt(R.styleable.MultiColorTextView_wave_duration, builder.waveDuration);
+        builder.touchMode = typedArray.getInt(R.styleable.MultiColorTextView_touch_mode, builder.touchMode);
+        builder.touchPrediction = typedArray.getBoolean(R.styleable.MultiColorTextView_touch_prediction, builder.touchPrediction);
+        builder.autoLayer = typedArray.getBoolean(R.styleable.MultiColorTextView_auto_layer, builder.autoLayer);
+        builder.layerSettleDelay = typedArray.getInt(R.styleable.MultiColorTextView_layer_settle_delay, builder.layerSettleDelay);
+        return builder.build();
+    }
+
+    /**
+     * 将Gravity的水平部分转换为多行文字的对齐方式
+     *
+     * @param gravity 对齐方式
+     * @return 多行文字的对齐方式
+     */
+    private static Layout.Alignment getLayoutAlignment(int gravity) {
+        switch (gravity & Gravity.HORIZONTAL_GRAVITY_MASK) {
+            case Gravity.LEFT: {
+                return Layout.Alignment.ALIGN_NORMAL;
+            }
+            case Gravity.RIGHT: {
+                return Layout.Alignment.ALIGN_OPPOSITE;
+            }
+            default: {
+                return Layout.Alignment.ALIGN_CENTER;
+            }
+        }
+    }
+
+    /**
+     * 获取xml中图案属性对应的位图（用于平铺填充）
+     * 同一个图案资源只转换一次，之后inflate的控件直接复用
+     *
+     * @param typedArray xml属性
+     * @param index      图案属性
+     * @return 图案位图，没有图案时返回null
+     */
+    private static Bitmap getPatternBitmap(TypedArray typedArray, int index) {
+        final int resourceId = typedArray.getResourceId(index, 0);
+        if (resourceId != 0) {
+            Bitmap bitmap = PATTERN_CACHE.get(resourceId);
+            if (bitmap != null) {
+                return bitmap;
+            }
+        }
+        Bitmap bitmap = getPatternBitmap(typedArray.getDrawable(index));
+        if (resourceId != 0 && bitmap != null) {
+            PATTERN_CACHE.put(resourceId, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * 将图案Drawable转换为位图
+     *
+     * @param drawable 图案
+     * @return 图案位图，没有图案时返回null
+     */
+    private static Bitmap getPatternBitmap(Drawable drawable) {
+        if (drawable == null) {
+            return null;
+        }
+        if (drawable instanceof BitmapDrawable) {
+            return ((BitmapDrawable) drawable).getBitmap();
+        }
+        int width = drawable.getIntrinsicWidth(), height = drawable.getIntrinsicHeight();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        drawable.setBounds(0, 0, width, height);
+        drawable.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    public int getTextSize() {
+        return textSize;
+    }
+
+    public boolean isAutoSize() {
+        return autoSize;
+    }
+
+    public int getAutoSizeMinTextSize() {
+        return autoSizeMinTextSize;
+    }
+
+    public int getAutoSizeMaxTextSize() {
+        return autoSizeMaxTextSize;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    public Layout.Alignment getLayoutAlignment() {
+        return layoutAlignment;
+    }
+
+    public int getBgColor() {
+        return bgColor;
+    }
+
+    public int getFgColor() {
+        return fgColor;
+    }
+
+    public int getGradientType() {
+        return gradientType;
+    }
+
+    public int getGradientAngle() {
+        return gradientAngle;
+    }
+
+    public int getBgEndColor() {
+        return bgEndColor;
+    }
+
+    public int getFgEndColor() {
+        return fgEndColor;
+    }
+
+    public Bitmap getBgPattern() {
+        return bgPattern;
+    }
+
+    public Bitmap getFgPattern() {
+        return fgPattern;
+    }
+
+    public int getStrokeType() {
+        return strokeType;
+    }
+
+    public float getStrokeWidth() {
+        return strokeWidth;
+    }
+
+    public int getStrokeColor() {
+        return strokeColor;
+    }
+
+    public int getFilledStrokeColor() {
+        return filledStrokeColor;
+    }
+
+    public int getShapeType() {
+        return shapeType;
+    }
+
+    public String getShapePathData() {
+        return shapePathData;
+    }
+
+    public int getClipType() {
+        return clipType;
+    }
+
+    public int getDividerType() {
+        return dividerType;
+    }
+
+    public int getDividerAngle() {
+        return dividerAngle;
+    }
+
+    public float getWaveAmplitude() {
+        return waveAmplitude;
+    }
+
+    public float getWaveLength() {
+        return waveLength;
+    }
+
+    public int getWaveDuration() {
+        return waveDuration;
+    }
+
+    public int getTouchMode() {
+        return touchMode;
+    }
+
+    public boolean isTouchPrediction() {
+        return touchPrediction;
+    }
+
+    public boolean isAutoLayer() {
+        return autoLayer;
+    }
+
+    public int getLayerSettleDelay() {
+        return layerSettleDelay;
+    }
+
+    public static class Builder {
+        private int textSize;
+        private boolean autoSize;
+        private int autoSizeMinTextSize;
+        private int autoSizeMaxTextSize;
+        private int maxLines;
+        private Layout.Alignment layoutAlignment;
+        private int bgColor;
+        private int fgColor;
+        private int gradientType;
+        private int gradientAngle;
+        /**
+         * 结束颜色，为null时在build()中取起始颜色
+         */
+        private Integer bgEndColor;
+        private Integer fgEndColor;
+        private Bitmap bgPattern;
+        private Bitmap fgPattern;
+        private int strokeType;
+        private float strokeWidth;
+        /**
+         * 描边颜色，为null时在build()中取前景色（填充区域取背景色）
+         */
+        private Integer strokeColor;
+        private Integer filledStrokeColor;
+        private int shapeType;
+        private String shapePathData;
+        private int clipType;
+        private int dividerType;
+        private int dividerAngle;
+        private float waveAmplitude;
+        private float waveLength;
+        private int waveDuration;
+        private int touchMode;
+        private boolean touchPrediction;
+        private boolean autoLayer;
+        private int layerSettleDelay;
+
+        /**
+         * 以默认值创建
+         *
+         * @param context 上下文
+         */
+        public Builder(Context context) {
+            textSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 20, context.getResources().getDisplayMetrics());
+            autoSize = false;
+            autoSizeMinTextSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 8, context.getResources().getDisplayMetrics());
+            autoSizeMaxTextSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 112, context.getResources().getDisplayMetrics());
+            maxLines = 1;
+            layoutAlignment = Layout.Alignment.ALIGN_CENTER;
+            bgColor = ContextCompat.getColor(context, R.color.default_bg_color);
+            fgColor = ContextCompat.getColor(context, R.color.default_fill_color);
+            gradientType = MultiColorTextView.GRADIENT_TYPE_NONE;
+            gradientAngle = 0;
+            strokeType = MultiColorTextView.STROKE_TYPE_NONE;
+            strokeWidth = 0;
+            shapeType = MultiColorTextView.SHAPE_TYPE_RECT;
+            clipType = MultiColorTextView.CLIP_TYPE_SHAPE;
+            dividerType = MultiColorTextView.DIVIDER_TYPE_DEFAULT;
+            dividerAngle = 0;
+            waveAmplitude = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 6, context.getResources().getDisplayMetrics());
+            waveLength = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 48, context.getResources().getDisplayMetrics());
+            waveDuration = 1000;
+            touchMode = MultiColorTextView.TOUCH_MODE_NONE;
+            touchPrediction = false;
+            autoLayer = false;
+            layerSettleDelay = 300;
+        }
+
+        /**
+         * 以已有样式为基础创建
+         *
+         * @param style 已有样式
+         */
+        public Builder(MultiColorStyle style) {
+            textSize = style.textSize;
+            autoSize = style.autoSize;
+            autoSizeMinTextSize = style.autoSizeMinTextSize;
+            autoSizeMaxTextSize = style.autoSizeMaxTextSize;
+            maxLines = style.maxLines;
+            layoutAlignment = style.layoutAlignment;
+            bgColor = style.bgColor;
+            fgColor = style.fgColor;
+            gradientType = style.gradientType;
+            gradientAngle = style.gradientAngle;
+            // 结束颜色与起始颜色相同时视为没有设置，之后修改起始颜色时跟随变化
+            bgEndColor = style.bgEndColor == style.bgColor ? null : style.bgEndColor;
+            fgEndColor = style.fgEndColor == style.fgColor ? null : style.fgEndColor;
+            bgPattern = style.bgPattern;
+            fgPattern = style.fgPattern;
+            strokeType = style.strokeType;
+            strokeWidth = style.strokeWidth;
+            // 与默认颜色相同时视为没有设置
+            strokeColor = style.strokeColor == style.fgColor ? null : style.strokeColor;
+            filledStrokeColor = style.filledStrokeColor == style.bgColor ? null : style.filledStrokeColor;
+            shapeType = style.shapeType;
+            shapePathData = style.shapePathData;
+            clipType = style.clipType;
+            dividerType = style.dividerType;
+            dividerAngle = style.dividerAngle;
+            waveAmplitude = style.waveAmplitude;
+            waveLength = style.waveLength;
+            waveDuration = style.waveDuration;
+            touchMode = style.touchMode;
+            touchPrediction = style.touchPrediction;
+            autoLayer = style.autoLayer;
+            layerSettleDelay = style.layerSettleDelay;
+        }
+
+        public Builder setTextSize(int textSize) {
+            this.textSize = textSize;
+            return this;
+        }
+
+        /**
+         * 设置是否根据控件大小自动调整文字大小
+         *
+         * @param autoSize 是否自动调整
+         * @return Builder
+         */
+        public Builder setAutoSize(boolean autoSize) {
+            this.autoSize = autoSize;
+            return this;
+        }
+
+        public Builder setAutoSizeTextSizeRange(int minTextSize, int maxTextSize) {
+            this.autoSizeMinTextSize = minTextSize;
+            this.autoSizeMaxTextSize = maxTextSize;
+            return this;
+        }
+
+        public Builder setMaxLines(int maxLines) {
+            this.maxLines = maxLines;
+            return this;
+        }
+
+        public Builder setLayoutAlignment(Layout.Alignment layoutAlignment) {
+            this.layoutAlignment = layoutAlignment;
+            return this;
+        }
+
+        public Builder setBgColor(int bgColor) {
+            this.bgColor = bgColor;
+            return this;
+        }
+
+        public Builder setFgColor(int fgColor) {
+            this.fgColor = fgColor;
+            return this;
+        }
+
+        /**
+         * 设置渐变类型
+         * {@link MultiColorTextView#GRADIENT_TYPE_NONE} 纯色
+         * {@link MultiColorTextView#GRADIENT_TYPE_LINEAR} 线性渐变
+         * {@link MultiColorTextView#GRADIENT_TYPE_RADIAL} 径向渐变
+         *
+         * @param gradientType 渐变类型
+         * @return Builder
+         */
+        public Builder setGradientType(int gradientType) {
+            this.gradientType = gradientType;
+            return this;
+        }
+
+        public Builder setGradientAngle(int gradientAngle) {
+            this.gradientAngle = gradientAngle;
+            return this;
+        }
+
+        /**
+         * 设置背景渐变的结束颜色，不设置时与背景颜色相同
+         *
+         * @param bgEndColor 结束颜色
+         * @return Builder
+         */
+        public Builder setBgEndColor(int bgEndColor) {
+            this.bgEndColor = bgEndColor;
+            return this;
+        }
+
+        /**
+         * 设置前景渐变的结束颜色，不设置时与前景颜色相同
+         *
+         * @param fgEndColor 结束颜色
+         * @return Builder
+         */
+        public Builder setFgEndColor(int fgEndColor) {
+            this.fgEndColor = fgEndColor;
+            return this;
+        }
+
+        /**
+         * 设置背景图案，不为null时优先于渐变
+         *
+         * @param bgPattern 平铺的图案
+         * @return Builder
+         */
+        public Builder setBgPattern(Bitmap bgPattern) {
+            this.bgPattern = bgPattern;
+            return this;
+        }
+
+        /**
+         * 设置前景图案，不为null时优先于渐变
+         *
+         * @param fgPattern 平铺的图案
+         * @return Builder
+         */
+        public Builder setFgPattern(Bitmap fgPattern) {
+            this.fgPattern = fgPattern;
+            return this;
+        }
+
+        /**
+         * 设置描边类型
+         *
+         * @param strokeType {@link MultiColorTextView#STROKE_TYPE_BORDER}和{@link MultiColorTextView#STROKE_TYPE_TEXT}的组合
+         * @return Builder
+         */
+        public Builder setStrokeType(int strokeType) {
+            this.strokeType = strokeType;
+            return this;
+        }
+
+        public Builder setStrokeWidth(float strokeWidth) {
+            this.strokeWidth = strokeWidth;
+            return this;
+        }
+
+        /**
+         * 设置非填充区域的描边颜色，不设置时与前景颜色相同
+         *
+         * @param strokeColor 描边颜色
+         * @return Builder
+         */
+        public Builder setStrokeColor(int strokeColor) {
+            this.strokeColor = strokeColor;
+            return this;
+        }
+
+        /**
+         * 设置填充区域的描边颜色，不设置时与背景颜色相同
+         *
+         * @param filledStrokeColor 描边颜色
+         * @return Builder
+         */
+        public Builder setFilledStrokeColor(int filledStrokeColor) {
+            this.filledStrokeColor = filledStrokeColor;
+            return this;
+        }
+
+        public Builder setShapeType(int shapeType) {
+            this.shapeType = shapeType;
+            return this;
+        }
+
+        /**
+         * 设置自定义形状的SVG Path数据（当形状是自定义形状时{@link MultiColorTextView#SHAPE_TYPE_PATH}）
+         * 数据格式错误时控件会打印警告并按矩形绘制，不会抛出异常
+         *
+         * @param shapePathData SVG Path数据
+         * @return Builder
+         */
+        public Builder setShapePathData(String shapePathData) {
+            this.shapePathData = shapePathData;
+            return this;
+        }
+
+        public Builder setClipType(int clipType) {
+            this.clipType = clipType;
+            return this;
+        }
+
+        public Builder setDividerType(int dividerType) {
+            this.dividerType = dividerType;
+            return this;
+        }
+
+        public Builder setDividerAngle(int dividerAngle) {
+            this.dividerAngle = dividerAngle;
+            return this;
+        }
+
+        public Builder setWaveAmplitude(float waveAmplitude) {
+            this.waveAmplitude = waveAmplitude;
+            return this;
+        }
+
+        public Builder setWaveLength(float waveLength) {
+            this.waveLength = waveLength;
+            return this;
+        }
+
+        public Builder setWaveDuration(int waveDuration) {
+            this.waveDuration = waveDuration;
+            return this;
+        }
+
+        /**
+         * 设置触摸模式
+         * {@link MultiColorTextView#TOUCH_MODE_NONE} 不响应触摸
+         * {@link MultiColorTextView#TOUCH_MODE_PROGRESS} 拖动设置填充进度
+         * {@link MultiColorTextView#TOUCH_MODE_ANGLE} 绕中心旋转设置分割线角度
+         *
+         * @param touchMode 触摸模式
+         * @return Builder
+         */
+        public Builder setTouchMode(int touchMode) {
+            this.touchMode = touchMode;
+            return this;
+        }
+
+        public Builder setTouchPrediction(boolean touchPrediction) {
+            this.touchPrediction = touchPrediction;
+            return this;
+        }
+
+        /**
+         * 设置是否自动管理图层（内容稳定时缓存到图层中，内容变化时去掉图层）
+         *
+         * @param autoLayer 是否自动管理
+         * @return Builder
+         */
+        public Builder setAutoLayer(boolean autoLayer) {
+            this.autoLayer = autoLayer;
+            return this;
+        }
+
+        /**
+         * 设置内容停止变化多久后重新缓存到图层中
+         *
+         * @param layerSettleDelay 稳定时间（毫秒）
+         * @return Builder
+         */
+        public Builder setLayerSettleDelay(int layerSettleDelay) {
+            this.layerSettleDelay = layerSettleDelay;
+            return this;
+        }
+
+        public MultiColorStyle build() {
+            return new MultiColorStyle(this);
+        }
+    }
+}
@@ -1,24 +1,34 @@
 package com.jerry.multicolortext;
 
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.Picture;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
 import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.os.SystemClock;
 import android.support.annotation.FloatRange;
 import android.support.annotation.Nullable;
-import android.support.v4.content.ContextCompat;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
 import android.util.AttributeSet;
 import android.util.Log;
-import android.util.TypedValue;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewParent;
+import android.view.animation.LinearInterpolator;
 
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 多颜色文字（例如上半部分红色，下半部分黄色）
@@ -38,21 +48,58 @@ public class MultiColorTextView extends View {
      */
     private static final int RECT_LINE_COUNT = 4;
     private static final int DIVIDER_ZERO_ANGLE = 0, DIVIDER_QUARTER_ANGLE = 90, DIVIDER_HALF_ANGLE = 180, DIVIDER_THREE_QUARTER_ANGLE = 270, DIVIDER_ENTIRE_ANGLE = 360;
-    public static final int SHAPE_TYPE_DEFAULT = 0, SHAPE_TYPE_RECT = 1, SHAPE_TYPE_CIRCLE = 2, SHAPE_TYPE_ROUND_RECT = 3;
-    public static final int DIVIDER_TYPE_DEFAULT = 0, DIVIDER_TYPE_LINE = 1, DIVIDER_TYPE_BESSEL = 2, DIVIDER_TYPE_WAVE = 3;
+    public static final int SHAPE_TYPE_DEFAULT = 0, SHAPE_TYPE_RECT = 1, SHAPE_TYPE_CIRCLE = 2, SHAPE_TYPE_ROUND_RECT = 3, SHAPE_TYPE_PATH = 4;
+    public static final int RENDER_BACKEND_REFERENCE = 0, RENDER_BACKEND_LAYER = 1;
+    public static final int CLIP_TYPE_DEFAULT = 0, CLIP_TYPE_SHAPE = 1, CLIP_TYPE_TEXT = 2;
+    public static final int DIVIDER_TYPE_DEFAULT = 0, DIVIDER_TYPE_LINE = 1, DIVIDER_TYPE_BESSEL = 2, DIVIDER_TYPE_WAVE = 3, DIVIDER_TYPE_SWEEP = 4;
+    public static final int GRADIENT_TYPE_NONE = 0, GRADIENT_TYPE_LINEAR = 1, GRADIENT_TYPE_RADIAL = 2;
+    public static final int STROKE_TYPE_NONE = 0, STROKE_TYPE_BORDER = 1, STROKE_TYPE_TEXT = 2;
+    public static final int TOUCH_MODE_NONE = 0, TOUCH_MODE_PROGRESS = 1, TOUCH_MODE_ANGLE = 2;
+    /**
+     * 预测触摸位置时向前预测的时间（毫秒），约为一帧
+     */
+    private static final float TOUCH_PREDICTION_MILLIS = 16;
+    /**
+     * 计算触摸速度时新速度所占的权重
+     */
+    private static final float TOUCH_VELOCITY_WEIGHT = 0.5f;
 
     /**
-     * 背景画笔和前景画笔
+     * 背景画笔（纯色时也用于绘制填充区域的文字，所以是TextPaint）
+     */
+    private TextPaint bgPaint;
+    /**
+     * 前景画笔（多行文字的排版也使用该画笔，所以是TextPaint）
+     */
+    private TextPaint fgPaint;
+    /**
+     * 填充区域的背景画笔和前景画笔，颜色和着色器与非填充区域相反
+     * 只有第一次设置渐变或图案时才创建：纯色时填充区域直接使用颜色相反的前景画笔和背景画笔
+     */
+    private Paint filledBgPaint;
+    private TextPaint filledFgPaint;
+    /**
+     * 绘制区域遮罩的画笔，只有颜色（决定遮罩透明度）没有着色器，与填充区域的画笔同时创建
+     * 纯色时背景画笔和前景画笔本身就没有着色器，直接用作遮罩
+     */
+    private Paint bgMaskPaint, fgMaskPaint;
+    /**
+     * 非填充区域和填充区域的描边画笔，第一次绘制描边时才创建
+     * 描边已预先转换成填充轮廓，所以这两个画笔也是填充样式
+     */
+    private Paint strokePaint, filledStrokePaint;
+    /**
+     * 用于裁剪的画笔（只读，所有控件共享）
      */
-    private Paint bgPaint, fgPaint;
+    private static final Paint CLIP_PAINT = createClipPaint();
     /**
-     * 用于裁剪的画笔
+     * 通用画笔（只读，所有控件共享）
      */
-    private Paint clipPaint;
+    private static final Paint COMMON_PAINT = createCommonPaint();
     /**
-     * 通用画笔
+     * 用于擦除的画笔（只读，所有控件共享）
      */
-    private Paint commonPaint;
+    private static final Paint ERASE_PAINT = createErasePaint();
 
     /**
      * 文字内容
@@ -62,6 +109,34 @@ public class MultiColorTextView extends View {
      * 文字大小
      */
     private int textSize;
+    /**
+     * 是否根据控件大小自动调整文字大小（此时{@link MultiColorTextView#textSize}不生效）
+     */
+    private boolean autoSize;
+    /**
+     * 自动调整时的最小和最大文字大小
+     */
+    private int autoSizeMinTextSize, autoSizeMaxTextSize;
+    /**
+     * 最大行数，大于1时启用多行模式
+     */
+    private int maxLines;
+    /**
+     * 多行文字的对齐方式
+     */
+    private Layout.Alignment layoutAlignment;
+    /**
+     * 多行文字排版缓存
+     */
+    private TextLayoutCache textLayoutCache;
+    /**
+     * 测量时的多行排版宽度
+     */
+    private int textLayoutWidth;
+    /**
+     * 填充区域多行文字排版缓存（StaticLayout只能用创建时的画笔绘制）
+     */
+    private TextLayoutCache filledTextLayoutCache;
     /**
      * 背景色
      */
@@ -70,24 +145,169 @@ public class MultiColorTextView extends View {
      * 前景色
      */
     private int fgColor;
+    /**
+     * 渐变类型
+     * {@link MultiColorTextView#GRADIENT_TYPE_NONE} 纯色
+     * {@link MultiColorTextView#GRADIENT_TYPE_LINEAR} 线性渐变
+     * {@link MultiColorTextView#GRADIENT_TYPE_RADIAL} 径向渐变
+     */
+    private int gradientType;
+    /**
+     * 线性渐变的角度
+     */
+    private int gradientAngle;
+    /**
+     * 背景和前景渐变的结束颜色（起始颜色为背景色和前景色）
+     */
+    private int bgEndColor, fgEndColor;
+    /**
+     * 背景和前景的平铺图案，不为null时优先于渐变
+     */
+    private Bitmap bgPattern, fgPattern;
+    /**
+     * 背景和前景的着色器缓存
+     */
+    private FillShaderCache bgShaderCache, fgShaderCache;
     /**
      * 形状类型
      * {@link MultiColorTextView#SHAPE_TYPE_RECT} 矩形
      * {@link MultiColorTextView#SHAPE_TYPE_CIRCLE} 圆形
      * {@link MultiColorTextView#SHAPE_TYPE_ROUND_RECT} 圆角矩形
+     * {@link MultiColorTextView#SHAPE_TYPE_PATH} 自定义形状（SVG Path数据）
      */
     private int shapeType;
+    /**
+     * 自定义形状的SVG Path数据（当形状是自定义形状时{@link MultiColorTextView#SHAPE_TYPE_PATH}）
+     */
+    private String shapePathData;
+    /**
+     * 解析后的自定义形状（所有控件共享）
+     */
+    private SvgPathShape svgPathShape;
+    /**
+     * 自定义形状缩放到控件大小的变换
+     */
+    private Matrix shapeMatrix;
+    /**
+     * 缩放后自定义形状轮廓上的采样点
+     */
+    private float[] shapeOutlinePoints;
+    /**
+     * 形状和控件矩形在推进方向上的投影范围（每帧复用，避免分配）
+     */
+    private final float[] shapeProjectionRange = new float[2], rectProjectionRange = new float[2];
+    /**
+     * 分割线与矩形的两个交点、计算交点用的四个候选点和区域顶点的顺序（每帧复用，避免分配）
+     * 顶点顺序最多包含起点、终点和每条边上的一个顶点，为终点重复出现的情况留出余量
+     */
+    private final float[] dividerPoints = new float[4], dividerCandidatePoints = new float[8];
+    private final int[] pointOrder = new int[RECT_LINE_COUNT * 2 + 3];
+    /**
+     * 裁剪类型
+     * {@link MultiColorTextView#CLIP_TYPE_SHAPE} 按形状裁剪，显示背景和文字
+     * {@link MultiColorTextView#CLIP_TYPE_TEXT} 按文字轮廓裁剪，只显示双色的文字
+     */
+    private int clipType;
+    /**
+     * 文字轮廓缓存（当裁剪类型是文字时{@link MultiColorTextView#CLIP_TYPE_TEXT}）
+     */
+    private TextOutlineCache textOutlineCache;
+    /**
+     * 描边类型，可以组合
+     * {@link MultiColorTextView#STROKE_TYPE_BORDER} 形状边框
+     * {@link MultiColorTextView#STROKE_TYPE_TEXT} 文字描边
+     */
+    private int strokeType;
+    /**
+     * 描边宽度（轮廓内可见部分的宽度）
+     */
+    private float strokeWidth;
+    /**
+     * 非填充区域和填充区域的描边颜色
+     */
+    private int strokeColor, filledStrokeColor;
+    /**
+     * 形状边框和文字描边的轮廓缓存
+     */
+    private StrokeOutlineCache borderStrokeCache, textStrokeCache;
     /**
      * 分割线类型
      * {@link MultiColorTextView#DIVIDER_TYPE_LINE} 直线
      * {@link MultiColorTextView#DIVIDER_TYPE_BESSEL} 贝塞尔曲线
+     * {@link MultiColorTextView#DIVIDER_TYPE_WAVE} 水波纹
+     * {@link MultiColorTextView#DIVIDER_TYPE_SWEEP} 扇形
      */
     private int dividerType;
     /**
      * 分割线角度
+     * 扇形分割时表示指针的起始方向（0度为12点钟方向，顺时针）
      */
     private int dividerAngle;
 
+    /**
+     * 水波纹振幅
+     */
+    private float waveAmplitude;
+    /**
+     * 水波纹波长
+     */
+    private float waveLength;
+    /**
+     * 水波纹相位（一个周期对应一个波长）
+     */
+    private float wavePhase;
+    /**
+     * 水波纹平移一个波长所需的时间（毫秒），小于等于0时不自动播放
+     */
+    private int waveDuration;
+    /**
+     * 水波纹相位动画
+     */
+    private ValueAnimator waveAnimator;
+    /**
+     * 水波纹顶点缓存
+     */
+    private WaveDivider waveDivider;
+    /**
+     * 扇形分割线顶点缓存
+     */
+    private SweepDivider sweepDivider;
+
+    /**
+     * 卡拉OK时间轴，为null时不处于卡拉OK模式
+     */
+    private KaraokeTimeline karaokeTimeline;
+    /**
+     * 卡拉OK播放时钟，不为null时每帧从中读取播放时间
+     */
+    private KaraokeClock karaokeClock;
+    /**
+     * 卡拉OK当前播放时间（毫秒）
+     */
+    private long karaokeTime;
+    /**
+     * 是否已经安排了下一帧的卡拉OK更新
+     */
+    private boolean karaokeFramePending;
+    /**
+     * 跟随屏幕刷新从播放时钟读取时间并更新进度，播放到最后一个条目结束后停止
+     */
+    private final Runnable karaokeFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            karaokeFramePending = false;
+            if (karaokeClock == null || karaokeTimeline == null) {
+                return;
+            }
+            karaokeTime = karaokeClock.getPlaybackTime();
+            updateKaraokeProgress();
+            invalidateContent();
+            if (karaokeTime <= karaokeTimeline.getEndTime()) {
+                scheduleKaraokeFrame();
+            }
+        }
+    };
+
     /**
      * 控件区域
      */
@@ -110,11 +330,144 @@ public class MultiColorTextView extends View {
      */
     private Path unfilledAreaPath;
 
+    /**
+     * 内容合成方式
+     * {@link MultiColorTextView#RENDER_BACKEND_REFERENCE} 每个区域分别绘制到位图再用DST_IN位图相交（参考实现）
+     * {@link MultiColorTextView#RENDER_BACKEND_LAYER} 在离屏图层中直接用反向填充的Path擦除区域外内容，不分配位图
+     */
+    private int renderBackend;
+
     /**
      * 填充进度(0-1.0)
      */
     @FloatRange(from = 0, to = 1)
     private float fillProgress;
+    /**
+     * 分割线在控件矩形上的实际进度
+     * 自定义形状不一定撑满控件矩形，需要把填充进度从形状的投影范围换算到矩形的投影范围
+     */
+    private float dividerProgress;
+
+    /**
+     * 生成背景轮廓时的参数，参数不变时不重新生成
+     */
+    private int backgroundPathShapeType = -1, backgroundPathWidth, backgroundPathHeight;
+    private float backgroundPathRadius;
+    private SvgPathShape backgroundPathSvgShape;
+    /**
+     * 背景轮廓的版本号，每次重新生成时加1
+     */
+    private int backgroundPathVersion;
+
+    /**
+     * 触摸模式
+     * {@link MultiColorTextView#TOUCH_MODE_NONE} 不响应触摸
+     * {@link MultiColorTextView#TOUCH_MODE_PROGRESS} 拖动设置填充进度
+     * {@link MultiColorTextView#TOUCH_MODE_ANGLE} 绕中心旋转设置分割线角度
+     */
+    private int touchMode;
+    /**
+     * 是否根据触摸速度预测下一帧的触摸位置，以降低跟手延迟
+     */
+    private boolean touchPrediction;
+    private OnScrubListener onScrubListener;
+    /**
+     * 是否正在拖动
+     */
+    private boolean scrubbing;
+    /**
+     * 最近一个触摸点的位置、时间和速度（像素/毫秒）
+     */
+    private float lastTouchX, lastTouchY, touchVelocityX, touchVelocityY;
+    private long lastTouchTime;
+    /**
+     * 是否有尚未应用的触摸点，同一帧内的多个触摸事件只在下一帧应用一次
+     */
+    private boolean touchUpdatePending;
+    private final Runnable touchUpdateRunnable = new Runnable() {
+        @Override
+        public void run() {
+            touchUpdatePending = false;
+            if (!scrubbing) {
+                return;
+            }
+            float x = lastTouchX, y = lastTouchY;
+            if (touchPrediction) {
+                x += touchVelocityX * TOUCH_PREDICTION_MILLIS;
+                y += touchVelocityY * TOUCH_PREDICTION_MILLIS;
+            }
+            applyTouch(x, y);
+        }
+    };
+
+    /**
+     * 内容版本，每次内容、尺寸或Padding变化时加1
+     */
+    private int contentVersion;
+    /**
+     * 内容版本对应的尺寸和Padding
+     */
+    private int contentWidth, contentHeight;
+    private int contentPaddingLeft, contentPaddingTop, contentPaddingRight, contentPaddingBottom;
+    /**
+     * 空闲时预合成的内容（由{@link MultiColorPrefetcher}在后台线程光栅化），交给画布后不再写入
+     */
+    private Bitmap prefetchBitmap;
+    /**
+     * 备用的预合成位图，只保存从未交给画布的位图（被放弃的预合成结果），下次预合成时复用
+     */
+    private Bitmap prefetchSpareBitmap;
+    /**
+     * 预合成内容对应的内容版本，-1表示没有可用的预合成内容
+     */
+    private int prefetchedVersion = -1;
+    /**
+     * 预合成的序号，只有最后一次预合成的结果才会被采用
+     */
+    private int prefetchSequence;
+    /**
+     * 释放预合成位图时的序号，不晚于它的预合成结果直接丢弃
+     */
+    private int releasedPrefetchSequence;
+
+    /**
+     * 是否自动管理图层：内容稳定时缓存到图层中，内容变化时去掉图层直接绘制
+     */
+    private boolean autoLayer;
+    /**
+     * 内容停止变化多久后重新缓存到图层中（毫秒）
+     */
+    private int layerSettleDelay;
+    /**
+     * 当前是否已缓存到图层中
+     */
+    private boolean layerCached;
+    /**
+     * 进入当前图层状态的时间和最后一次内容变化的时间
+     */
+    private long layerStateStartTime, lastContentChangeTime;
+    /**
+     * 累计缓存和直接绘制的时间（毫秒）
+     */
+    private long cachedTimeMillis, liveTimeMillis;
+    private OnLayerStateChangeListener onLayerStateChangeListener;
+    private boolean layerSettlePending;
+    private final Runnable layerSettleRunnable = new Runnable() {
+        @Override
+        public void run() {
+            layerSettlePending = false;
+            if (!autoLayer || layerCached || !isAttachedToWindow() || isContinuouslyAnimating()) {
+                return;
+            }
+            long remainingTime = getLayerSettleRemainingTime(lastContentChangeTime, layerSettleDelay, SystemClock.uptimeMillis());
+            if (remainingTime > 0) {
+                // 等待期间内容又变化过，等到最后一次变化后满足稳定时间再缓存
+                scheduleLayerSettle(remainingTime);
+                return;
+            }
+            setLayerCached(true);
+        }
+    };
 
     /**
      * 圆角半径（当形状是圆角矩形时{@link MultiColorTextView#SHAPE_TYPE_ROUND_RECT}）
@@ -136,6 +489,18 @@ public class MultiColorTextView extends View {
         init(context, attrs);
     }
 
+    /**
+     * 使用共享样式创建，不需要解析xml属性
+     *
+     * @param context 上下文
+     * @param style   样式
+     */
+    public MultiColorTextView(Context context, MultiColorStyle style) {
+        super(context);
+        textContent = "我";
+        init(style);
+    }
+
     /**
      * 初始化操作
      *
@@ -145,57 +510,512 @@ public class MultiColorTextView extends View {
     private void init(Context context, AttributeSet attrs) {
         // 提供默认值
         textContent = "我";
-        textSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 20, context.getResources().getDisplayMetrics());
-        bgColor = ContextCompat.getColor(context, R.color.default_bg_color);
-        fgColor = ContextCompat.getColor(context, R.color.default_fill_color);
-        shapeType = SHAPE_TYPE_DEFAULT;
         fillProgress = 0;
-        dividerType = DIVIDER_TYPE_DEFAULT;
-        dividerAngle = 0;
-        roundCornerRadius = 0;
-        textRect = new Rect();
-        backgroundPath = new Path();
-        filledAreaPath = new Path();
-        unfilledAreaPath = new Path();
-        viewRect = new Rect();
+        wavePhase = 0;
 
         // 获取xml中设置的属性
+        MultiColorStyle style;
         TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.MultiColorTextView);
         if (typedArray != null) {
-            textContent = typedArray.getString(R.styleable.MultiColorTextView_android_text);
-            textSize = typedArray.getDimensionPixelSize(R.styleable.MultiColorTextView_android_textSize, textSize);
-            bgColor = typedArray.getInt(R.styleable.MultiColorTextView_background_color, bgColor);
-            fgColor = typedArray.getInt(R.styleable.MultiColorTextView_foreground_color, fgColor);
-            shapeType = typedArray.getInt(R.styleable.MultiColorTextView_shape_type, SHAPE_TYPE_RECT);
+            style = MultiColorStyle.fromTypedArray(context, typedArray);
+            String text = typedArray.getString(R.styleable.MultiColorTextView_android_text);
+            if (text != null) {
+                textContent = text;
+            }
             fillProgress = typedArray.getFraction(R.styleable.MultiColorTextView_fill_progress, 1, 1, fillProgress);
-            dividerType = typedArray.getInt(R.styleable.MultiColorTextView_divider_type, dividerType);
-            dividerAngle = typedArray.getInt(R.styleable.MultiColorTextView_divider_angle, dividerAngle);
+            wavePhase = typedArray.getFloat(R.styleable.MultiColorTextView_wave_phase, wavePhase);
 
             typedArray.recycle();
+        } else {
+            style = new MultiColorStyle.Builder(context).build();
         }
 
+        init(style);
+    }
+
+    /**
+     * 初始化画笔并应用样式
+     * Path和缓存在第一次使用时才创建
+     *
+     * @param style 样式
+     */
+    private void init(MultiColorStyle style) {
+        roundCornerRadius = 0;
+        textRect = new Rect();
+        viewRect = new Rect();
+
         // 初始化画笔
-        bgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        bgPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
         bgPaint.setStyle(Paint.Style.FILL);
-        bgPaint.setColor(bgColor);
-        bgPaint.setTextSize(textSize);
 
-        fgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        fgPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
         fgPaint.setStyle(Paint.Style.FILL);
+
+        setStyle(style);
+    }
+
+    /**
+     * 将样式中的属性设置到控件上
+     *
+     * @param style 样式
+     */
+    private void setStyle(MultiColorStyle style) {
+        textSize = style.getTextSize();
+        autoSize = style.isAutoSize();
+        autoSizeMinTextSize = style.getAutoSizeMinTextSize();
+        autoSizeMaxTextSize = style.getAutoSizeMaxTextSize();
+        maxLines = style.getMaxLines();
+        layoutAlignment = style.getLayoutAlignment();
+        bgColor = style.getBgColor();
+        fgColor = style.getFgColor();
+        gradientType = style.getGradientType();
+        gradientAngle = style.getGradientAngle();
+        bgEndColor = style.getBgEndColor();
+        fgEndColor = style.getFgEndColor();
+        bgPattern = style.getBgPattern();
+        fgPattern = style.getFgPattern();
+        strokeType = style.getStrokeType();
+        strokeWidth = style.getStrokeWidth();
+        strokeColor = style.getStrokeColor();
+        filledStrokeColor = style.getFilledStrokeColor();
+        shapeType = style.getShapeType();
+        try {
+            setShapePathDataInternal(style.getShapePathData());
+        } catch (IllegalArgumentException e) {
+            // 布局文件中的Path数据格式错误时不中断inflate，按矩形绘制
+            Log.w(TAG, "Invalid shape path data, falling back to rect", e);
+            shapePathData = null;
+            svgPathShape = null;
+        }
+        clipType = style.getClipType();
+        dividerType = style.getDividerType();
+        dividerAngle = style.getDividerAngle();
+        waveAmplitude = style.getWaveAmplitude();
+        waveLength = style.getWaveLength();
+        waveDuration = style.getWaveDuration();
+        touchMode = style.getTouchMode();
+        touchPrediction = style.isTouchPrediction();
+        layerSettleDelay = style.getLayerSettleDelay();
+        setAutoLayerInternal(style.isAutoLayer());
+
+        updatePaintColor();
+        updatePaintTextSize();
+    }
+
+    /**
+     * 更新画笔颜色
+     * 填充区域颜色相反，所以填充区域的背景画笔使用前景色，前景画笔使用背景色
+     */
+    private void updatePaintColor() {
+        bgPaint.setColor(bgColor);
         fgPaint.setColor(fgColor);
-        fgPaint.setTextSize(textSize);
+        if (filledBgPaint != null) {
+            filledBgPaint.setColor(fgColor);
+            filledFgPaint.setColor(bgColor);
+            bgMaskPaint.setColor(bgColor);
+            fgMaskPaint.setColor(fgColor);
+        }
+        if (strokePaint != null) {
+            strokePaint.setColor(strokeColor);
+            filledStrokePaint.setColor(filledStrokeColor);
+        }
+    }
+
+    /**
+     * 更新画笔的文字大小
+     */
+    private void updatePaintTextSize() {
+        setPaintTextSize(textSize);
+    }
+
+    /**
+     * 设置所有绘制文字的画笔的文字大小
+     *
+     * @param size 文字大小
+     */
+    private void setPaintTextSize(float size) {
+        bgPaint.setTextSize(size);
+        fgPaint.setTextSize(size);
+        if (filledFgPaint != null) {
+            filledFgPaint.setTextSize(size);
+        }
+    }
+
+    /**
+     * 更新渐变和图案着色器，着色器按参数和尺寸缓存，只有变化时才重新设置到画笔上
+     */
+    private void updatePaintShader() {
+        if (bgShaderCache == null) {
+            bgShaderCache = new FillShaderCache();
+            fgShaderCache = new FillShaderCache();
+        }
+        Shader bgShader = bgShaderCache.obtain(gradientType, gradientAngle, bgColor, bgEndColor, bgPattern, viewRect.width(), viewRect.height());
+        Shader fgShader = fgShaderCache.obtain(gradientType, gradientAngle, fgColor, fgEndColor, fgPattern, viewRect.width(), viewRect.height());
+        if (bgPaint.getShader() != bgShader) {
+            bgPaint.setShader(bgShader);
+        }
+        if (fgPaint.getShader() != fgShader) {
+            fgPaint.setShader(fgShader);
+        }
+        if (filledBgPaint == null && (bgShader != null || fgShader != null)) {
+            createFilledPaints();
+        }
+        if (filledBgPaint != null) {
+            if (filledFgPaint.getShader() != bgShader) {
+                filledFgPaint.setShader(bgShader);
+            }
+            if (filledBgPaint.getShader() != fgShader) {
+                filledBgPaint.setShader(fgShader);
+            }
+        }
+    }
+
+    /**
+     * 创建填充区域和遮罩的画笔（第一次设置渐变或图案时）
+     */
+    private void createFilledPaints() {
+        filledBgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        filledBgPaint.setStyle(Paint.Style.FILL);
+
+        filledFgPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        filledFgPaint.setStyle(Paint.Style.FILL);
+        filledFgPaint.setTextSize(fgPaint.getTextSize());
+
+        bgMaskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        bgMaskPaint.setStyle(Paint.Style.FILL);
+
+        fgMaskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        fgMaskPaint.setStyle(Paint.Style.FILL);
+
+        updatePaintColor();
+        // 之前填充区域的多行排版是用背景画笔创建的，需要用新的画笔重新排版
+        filledTextLayoutCache = null;
+    }
 
-        clipPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        clipPaint.setStyle(Paint.Style.FILL);
-        clipPaint.setColor(Color.WHITE);
-        clipPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_IN));
+    /**
+     * 获取区域的背景画笔
+     *
+     * @param filled 是否是填充区域
+     * @return 背景画笔，纯色时填充区域使用前景画笔
+     */
+    private Paint getAreaBgPaint(boolean filled) {
+        if (!filled) {
+            return bgPaint;
+        }
+        return filledBgPaint != null ? filledBgPaint : fgPaint;
+    }
+
+    /**
+     * 获取区域的前景（文字）画笔
+     *
+     * @param filled 是否是填充区域
+     * @return 前景画笔，纯色时填充区域使用背景画笔
+     */
+    private TextPaint getAreaFgPaint(boolean filled) {
+        if (!filled) {
+            return fgPaint;
+        }
+        return filledFgPaint != null ? filledFgPaint : bgPaint;
+    }
 
-        commonPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        commonPaint.setColor(Color.BLACK);
+    /**
+     * 获取区域遮罩的画笔
+     *
+     * @param filled 是否是填充区域
+     * @return 遮罩画笔，纯色时直接使用没有着色器的背景画笔和前景画笔
+     */
+    private Paint getAreaMaskPaint(boolean filled) {
+        if (bgMaskPaint == null) {
+            return filled ? fgPaint : bgPaint;
+        }
+        return filled ? fgMaskPaint : bgMaskPaint;
+    }
+
+    /**
+     * 一次性应用共享样式（适合列表中大量相同样式的控件）
+     *
+     * @param style 样式
+     */
+    public void applyStyle(MultiColorStyle style) {
+        setStyle(style);
+        updateWaveAnimator();
+        requestLayout();
+        invalidateContent();
+    }
+
+    /**
+     * 创建用于裁剪的画笔（所有控件共享）
+     *
+     * @return 用于裁剪的画笔
+     */
+    private static Paint createClipPaint() {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(Color.WHITE);
+        paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_IN));
+        return paint;
+    }
+
+    /**
+     * 创建用于擦除的画笔（所有控件共享）
+     *
+     * @return 用于擦除的画笔
+     */
+    private static Paint createErasePaint() {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(Color.WHITE);
+        paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_OUT));
+        return paint;
+    }
+
+    /**
+     * 创建通用画笔（所有控件共享）
+     *
+     * @return 通用画笔
+     */
+    private static Paint createCommonPaint() {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(Color.BLACK);
+        return paint;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        updateWaveAnimator();
+        if (karaokeClock != null) {
+            scheduleKaraokeFrame();
+        }
+        if (autoLayer) {
+            lastContentChangeTime = SystemClock.uptimeMillis();
+            scheduleLayerSettle(layerSettleDelay);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        stopWaveAnimator();
+        removeCallbacks(karaokeFrameRunnable);
+        karaokeFramePending = false;
+        removeCallbacks(touchUpdateRunnable);
+        touchUpdatePending = false;
+        removeCallbacks(layerSettleRunnable);
+        layerSettlePending = false;
+        releasePrefetch();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (touchMode == TOUCH_MODE_NONE || !isEnabled()
+                || (touchMode == TOUCH_MODE_PROGRESS && karaokeTimeline != null)) {
+            // 卡拉OK模式下进度由播放时间决定
+            return super.onTouchEvent(event);
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN: {
+                ViewParent parent = getParent();
+                if (parent != null) {
+                    parent.requestDisallowInterceptTouchEvent(true);
+                }
+                scrubbing = true;
+                lastTouchX = event.getX();
+                lastTouchY = event.getY();
+                lastTouchTime = event.getEventTime();
+                touchVelocityX = touchVelocityY = 0;
+                if (onScrubListener != null) {
+                    onScrubListener.onStartTrackingTouch(this);
+                }
+                applyTouch(lastTouchX, lastTouchY);
+                return true;
+            }
+            case MotionEvent.ACTION_MOVE: {
+                if (!scrubbing) {
+                    return false;
+                }
+                // 一次处理完所有历史触摸点（只更新位置和速度，不生成几何）
+                for (int i = 0, historySize = event.getHistorySize(); i < historySize; i++) {
+                    trackTouch(event.getHistoricalX(i), event.getHistoricalY(i), event.getHistoricalEventTime(i));
+                }
+                trackTouch(event.getX(), event.getY(), event.getEventTime());
+                // 同一帧内的多个事件合并为一次更新
+                if (!touchUpdatePending) {
+                    touchUpdatePending = true;
+                    postOnAnimation(touchUpdateRunnable);
+                }
+                return true;
+            }
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL: {
+                if (!scrubbing) {
+                    return false;
+                }
+                removeCallbacks(touchUpdateRunnable);
+                touchUpdatePending = false;
+                // 抬起时使用实际位置，不做预测
+                if (event.getActionMasked() == MotionEvent.ACTION_UP) {
+                    applyTouch(event.getX(), event.getY());
+                }
+                scrubbing = false;
+                if (onScrubListener != null) {
+                    onScrubListener.onStopTrackingTouch(this);
+                }
+                if (event.getActionMasked() == MotionEvent.ACTION_UP) {
+                    performClick();
+                }
+                return true;
+            }
+            default: {
+                return scrubbing;
+            }
+        }
+    }
+
+    /**
+     * 拖动结束后视为一次点击，保证点击监听和无障碍服务能收到事件
+     */
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    /**
+     * 记录一个触摸点，并平滑地更新触摸速度
+     *
+     * @param x         X坐标
+     * @param y         Y坐标
+     * @param eventTime 触摸时间
+     */
+    private void trackTouch(float x, float y, long eventTime) {
+        long deltaTime = eventTime - lastTouchTime;
+        if (deltaTime > 0) {
+            touchVelocityX += ((x - lastTouchX) / deltaTime - touchVelocityX) * TOUCH_VELOCITY_WEIGHT;
+            touchVelocityY += ((y - lastTouchY) / deltaTime - touchVelocityY) * TOUCH_VELOCITY_WEIGHT;
+        }
+        lastTouchX = x;
+        lastTouchY = y;
+        lastTouchTime = eventTime;
+    }
+
+    /**
+     * 根据触摸点设置填充进度或分割线角度
+     *
+     * @param x X坐标
+     * @param y Y坐标
+     */
+    private void applyTouch(float x, float y) {
+        if (touchMode == TOUCH_MODE_ANGLE) {
+            int angle = getTouchAngle(x - viewRect.centerX(), y - viewRect.centerY(), getCalDividerType() == DIVIDER_TYPE_SWEEP);
+            if (angle != dividerAngle) {
+                setDividerAngle(angle);
+            }
+        } else {
+            float progress = getProgressAt(x, y);
+            if (progress != fillProgress) {
+                setFillProgress(progress);
+            }
+        }
+        if (onScrubListener != null) {
+            onScrubListener.onScrubChanged(this, fillProgress, dividerAngle);
+        }
+    }
+
+    /**
+     * 计算中心指向触摸点的分割线角度
+     * 分割线沿角度方向推进，所以角度即为中心指向触摸点的方向（以3点钟方向为0度）
+     *
+     * @param dx    触摸点相对中心的X偏移
+     * @param dy    触摸点相对中心的Y偏移
+     * @param sweep 是否是扇形分割
+     * @return 分割线角度(0-360度)
+     */
+    static int getTouchAngle(float dx, float dy, boolean sweep) {
+        double degrees = Math.toDegrees(Math.atan2(dy, dx));
+        if (sweep) {
+            // 扇形的指针方向以12点钟方向为0度，换算后指针起点才会跟随手指
+            degrees += DIVIDER_QUARTER_ANGLE;
+        }
+        return (int) Math.round(degrees + DIVIDER_ENTIRE_ANGLE) % DIVIDER_ENTIRE_ANGLE;
+    }
+
+    /**
+     * 计算分割线经过给定点时的填充进度，与生成分割线的几何计算保持一致
+     * 直线和贝塞尔曲线：点在推进方向上的投影在形状投影范围中的位置
+     * 水波纹：投影范围两端各留出一个振幅
+     * 扇形：点相对中心的角度从起始角度开始扫过的比例
+     *
+     * @param x X坐标
+     * @param y Y坐标
+     * @return 填充进度(0-1.0)
+     */
+    private float getProgressAt(float x, float y) {
+        final float calAngle = getCalAngle();
+        final int calDividerType = getCalDividerType();
+        if (calDividerType == DIVIDER_TYPE_SWEEP) {
+            // 扇形的起始角度与SweepDivider一致（以3点钟方向为0度）
+            return getSweepProgress(x - viewRect.centerX(), y - viewRect.centerY(), calAngle - DIVIDER_QUARTER_ANGLE);
+        }
+        final double radians = Math.toRadians(calAngle);
+        final float normalX = (float) Math.cos(radians), normalY = (float) Math.sin(radians);
+        final float[] range = shapeProjectionRange;
+        getShapeProjectionRange(normalX, normalY, range);
+        if (calDividerType == DIVIDER_TYPE_WAVE) {
+            range[0] -= waveAmplitude;
+            range[1] += waveAmplitude;
+        }
+        if (range[1] <= range[0]) {
+            return fillProgress;
+        }
+        return getProjectionProgress(x, y, normalX, normalY, range);
+    }
+
+    /**
+     * 计算点相对中心的角度从起始角度开始顺时针扫过的比例
+     *
+     * @param dx         点相对中心的X偏移
+     * @param dy         点相对中心的Y偏移
+     * @param startAngle 起始角度（以3点钟方向为0度）
+     * @return 扫过的比例(0-1.0)
+     */
+    static float getSweepProgress(float dx, float dy, float startAngle) {
+        double degrees = Math.toDegrees(Math.atan2(dy, dx)) - startAngle;
+        degrees = (degrees % DIVIDER_ENTIRE_ANGLE + DIVIDER_ENTIRE_ANGLE) % DIVIDER_ENTIRE_ANGLE;
+        return (float) (degrees / DIVIDER_ENTIRE_ANGLE);
+    }
+
+    /**
+     * 计算点在推进方向上的投影在投影范围中的位置
+     *
+     * @param x       X坐标
+     * @param y       Y坐标
+     * @param normalX 推进方向X分量
+     * @param normalY 推进方向Y分量
+     * @param range   投影范围的最小值和最大值（最大值大于最小值）
+     * @return 位置(0-1.0)
+     */
+    static float getProjectionProgress(float x, float y, float normalX, float normalY, float[] range) {
+        float projection = x * normalX + y * normalY;
+        return Math.max(0, Math.min(1, (projection - range[0]) / (range[1] - range[0])));
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        long measureStartTime = RenderMetrics.beginStage(RenderMetrics.STAGE_MEASURE);
+        measureContent(widthMeasureSpec, heightMeasureSpec);
+        setMeasuredDimension(viewRect.width(), viewRect.height());
+        // 文字位置和控件尺寸变化后卡拉OK进度对应的位置也随之变化
+        updateKaraokeProgress();
+        RenderMetrics.endStage(RenderMetrics.STAGE_MEASURE, measureStartTime);
+    }
+
+    /**
+     * 按测量规格计算文字区域和控件区域（不设置测量结果，预取时也会调用）
+     *
+     * @param widthMeasureSpec  宽度测量规格
+     * @param heightMeasureSpec 高度测量规格
+     */
+    private void measureContent(int widthMeasureSpec, int heightMeasureSpec) {
         textRect.setEmpty();
         roundCornerRadius = 0;
 
@@ -205,7 +1025,17 @@ public class MultiColorTextView extends View {
 
         int resultWidth = MeasureSpec.getSize(widthMeasureSpec), resultHeight = MeasureSpec.getSize(heightMeasureSpec);
 
-        bgPaint.getTextBounds(textContent, 0, textContent.length(), textRect);
+        if (autoSize && widthMode != MeasureSpec.UNSPECIFIED && heightMode != MeasureSpec.UNSPECIFIED) {
+            // 自动调整文字大小时控件大小由外部决定，文字适应控件
+            applyAutoTextSize(resultWidth, resultHeight);
+            widthMode = heightMode = MeasureSpec.EXACTLY;
+        }
+
+        if (isMultiLine()) {
+            measureTextLayout(widthMode, resultWidth - paddingLeft - paddingRight);
+        } else {
+            bgPaint.getTextBounds(textContent, 0, textContent.length(), textRect);
+        }
         switch (shapeType) {
             case SHAPE_TYPE_CIRCLE: {
                 int maxLength;
@@ -267,30 +1097,370 @@ public class MultiColorTextView extends View {
             }
         }
 
-        viewRect.set(0, 0, resultWidth, resultHeight);
-        setMeasuredDimension(resultWidth, resultHeight);
+        viewRect.set(0, 0, resultWidth, resultHeight);
+    }
+
+    /**
+     * 按控件大小和形状设置能放下的最大文字大小
+     * 结果按文字、尺寸、形状和字体缓存，只有重新测量时才会查询
+     *
+     * @param width  控件宽度
+     * @param height 控件高度
+     */
+    private void applyAutoTextSize(int width, int height) {
+        int[] padding = {getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom()};
+        int fitTextSize = TextAutoSizer.obtain(fgPaint, textContent, width, height, padding,
+                shapeType, maxLines, layoutAlignment, autoSizeMinTextSize, Math.max(autoSizeMinTextSize, autoSizeMaxTextSize));
+        if (fgPaint.getTextSize() != fitTextSize) {
+            setPaintTextSize(fitTextSize);
+        }
+    }
+
+    /**
+     * 多行模式下排版文字，并以整个文字块作为文字显示区域
+     * 排版结果会被缓存，绘制时直接复用
+     *
+     * @param widthMode      宽度测量模式
+     * @param availableWidth 去除Padding后可用的宽度
+     */
+    private void measureTextLayout(int widthMode, int availableWidth) {
+        if (textLayoutCache == null) {
+            textLayoutCache = new TextLayoutCache();
+        }
+        textLayoutWidth = textLayoutCache.obtainLayoutWidth(fgPaint, textContent,
+                widthMode == MeasureSpec.UNSPECIFIED ? Integer.MAX_VALUE : availableWidth);
+
+        StaticLayout layout = textLayoutCache.obtain(fgPaint, textContent, textLayoutWidth, maxLines, layoutAlignment);
+        textRect.set(0, 0, textLayoutCache.getBlockWidth(), layout.getHeight());
+    }
+
+    /**
+     * @return 是否处于多行模式
+     */
+    private boolean isMultiLine() {
+        return maxLines > 1;
+    }
+
+    /**
+     * 简要说一下绘画思路：
+     * 1. 先得到背景Path、填充和非填充Path
+     * 2. 按照填充和非填充情况绘制出Bitmap并与对应Path相交
+     * 3. 再将两个Bitmap合并到一个Bitmap中与背景Path相交
+     *
+     * @param canvas 画布
+     */
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (hasPrefetchedContent()) {
+            // 内容已在空闲时预合成，直接绘制
+            long startTime = RenderMetrics.beginStage(RenderMetrics.STAGE_DRAW_BITMAP);
+            canvas.drawBitmap(prefetchBitmap, 0, 0, COMMON_PAINT);
+            RenderMetrics.endStage(RenderMetrics.STAGE_DRAW_BITMAP, startTime);
+            return;
+        }
+
+        long startTime = RenderMetrics.beginStage(RenderMetrics.STAGE_BACKGROUND_PATH);
+        generateBackgroundPath();
+        RenderMetrics.endStage(RenderMetrics.STAGE_BACKGROUND_PATH, startTime);
+
+        startTime = RenderMetrics.beginStage(RenderMetrics.STAGE_AREA_PATH);
+        generateFilledAndUnfilledAreaPath();
+        RenderMetrics.endStage(RenderMetrics.STAGE_AREA_PATH, startTime);
+
+        updatePaintShader();
+
+        canvas.save();
+        drawContent(canvas);
+        canvas.restore();
+    }
+
+    /**
+     * 按当前的合成方式绘制内容（轮廓和着色器需要已经生成），onDraw和预合成的录制共用，保证两者结果一致
+     *
+     * @param canvas 画布
+     */
+    private void drawContent(Canvas canvas) {
+        if (renderBackend == RENDER_BACKEND_LAYER) {
+            long startTime = RenderMetrics.beginStage(RenderMetrics.STAGE_CONTENT_BITMAP);
+            drawContentWithLayer(canvas);
+            RenderMetrics.endStage(RenderMetrics.STAGE_CONTENT_BITMAP, startTime);
+        } else {
+            long startTime = RenderMetrics.beginStage(RenderMetrics.STAGE_CONTENT_BITMAP);
+            Bitmap contentBitmap = generateContentBitmap();
+            RenderMetrics.endStage(RenderMetrics.STAGE_CONTENT_BITMAP, startTime);
+
+            startTime = RenderMetrics.beginStage(RenderMetrics.STAGE_DRAW_BITMAP);
+            canvas.drawBitmap(contentBitmap, 0, 0, COMMON_PAINT);
+            RenderMetrics.endStage(RenderMetrics.STAGE_DRAW_BITMAP, startTime);
+        }
+    }
+
+    /**
+     * 内容变化后重绘：更新内容版本（版本变化后预合成的内容随之失效），并通知图层管理
+     * 本类中所有影响绘制结果的设置都通过这里重绘；外部或父控件引起的invalidate只是重绘，
+     * 内容没有变化，所以不会丢弃预合成的内容和图层缓存
+     */
+    private void invalidateContent() {
+        updateContentVersion();
+        onContentChanged();
+        invalidate();
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        // setPadding等不经过本类setter的变化只会引起重新布局，在这里检查尺寸和Padding
+        updateContentLayout(right - left, bottom - top);
+    }
+
+    /**
+     * 记录绘制内容对应的尺寸和Padding，变化时更新内容版本
+     *
+     * @param width  控件宽度
+     * @param height 控件高度
+     */
+    private void updateContentLayout(int width, int height) {
+        int paddingLeft = getPaddingLeft(), paddingTop = getPaddingTop(), paddingRight = getPaddingRight(), paddingBottom = getPaddingBottom();
+        if (contentWidth == width && contentHeight == height
+                && contentPaddingLeft == paddingLeft && contentPaddingTop == paddingTop
+                && contentPaddingRight == paddingRight && contentPaddingBottom == paddingBottom) {
+            return;
+        }
+        contentWidth = width;
+        contentHeight = height;
+        contentPaddingLeft = paddingLeft;
+        contentPaddingTop = paddingTop;
+        contentPaddingRight = paddingRight;
+        contentPaddingBottom = paddingBottom;
+        updateContentVersion();
+    }
+
+    /**
+     * 更新内容版本，旧版本的预合成位图不会再被使用，直接释放
+     * 它可能还被显示列表引用，所以不留作备用
+     */
+    private void updateContentVersion() {
+        contentVersion++;
+        prefetchBitmap = null;
+        prefetchedVersion = -1;
+    }
+
+    /**
+     * 内容变化时去掉图层缓存，直到内容稳定一段时间后再重新缓存
+     * 变化频繁时只记录时间，不会每次都重新安排
+     */
+    private void onContentChanged() {
+        if (!autoLayer) {
+            return;
+        }
+        lastContentChangeTime = SystemClock.uptimeMillis();
+        if (layerCached) {
+            setLayerCached(false);
+        }
+        scheduleLayerSettle(layerSettleDelay);
+    }
+
+    /**
+     * 安排检查内容是否已经稳定
+     *
+     * @param delay 延迟时间（毫秒）
+     */
+    private void scheduleLayerSettle(long delay) {
+        if (layerSettlePending || !isAttachedToWindow()) {
+            return;
+        }
+        layerSettlePending = true;
+        postDelayed(layerSettleRunnable, delay);
+    }
+
+    /**
+     * 计算内容还需要保持不变多久才算稳定
+     *
+     * @param lastContentChangeTime 最后一次内容变化的时间（毫秒）
+     * @param layerSettleDelay      稳定时间（毫秒）
+     * @param now                   当前时间（毫秒）
+     * @return 剩余时间（毫秒），已经稳定时返回0
+     */
+    static long getLayerSettleRemainingTime(long lastContentChangeTime, int layerSettleDelay, long now) {
+        return Math.max(lastContentChangeTime + layerSettleDelay - now, 0);
+    }
+
+    /**
+     * @return 内容是否每帧都在变化（水波纹动画、卡拉OK播放），此时不缓存图层
+     */
+    private boolean isContinuouslyAnimating() {
+        return karaokeFramePending || (waveAnimator != null && waveAnimator.isRunning());
+    }
+
+    /**
+     * 切换图层状态，硬件加速时使用硬件图层，否则使用软件图层（保留的位图）
+     *
+     * @param cached 是否缓存到图层中
+     */
+    private void setLayerCached(boolean cached) {
+        long now = SystemClock.uptimeMillis();
+        long stateDuration = layerStateStartTime == 0 ? 0 : now - layerStateStartTime;
+        if (layerCached) {
+            cachedTimeMillis += stateDuration;
+        } else {
+            liveTimeMillis += stateDuration;
+        }
+        layerCached = cached;
+        layerStateStartTime = now;
+        setLayerType(!cached ? LAYER_TYPE_NONE : isHardwareAccelerated() ? LAYER_TYPE_HARDWARE : LAYER_TYPE_SOFTWARE, null);
+        if (onLayerStateChangeListener != null) {
+            onLayerStateChangeListener.onLayerStateChanged(this, cached, stateDuration);
+        }
+    }
+
+    private void setAutoLayerInternal(boolean autoLayer) {
+        if (this.autoLayer == autoLayer) {
+            return;
+        }
+        this.autoLayer = autoLayer;
+        if (autoLayer) {
+            layerStateStartTime = SystemClock.uptimeMillis();
+            lastContentChangeTime = layerStateStartTime;
+            scheduleLayerSettle(layerSettleDelay);
+        } else {
+            removeCallbacks(layerSettleRunnable);
+            layerSettlePending = false;
+            if (layerCached) {
+                setLayerCached(false);
+            }
+        }
+    }
+
+    /**
+     * @return 是否有与当前内容一致的预合成内容
+     */
+    private boolean hasPrefetchedContent() {
+        return prefetchedVersion == contentVersion && prefetchBitmap != null
+                && prefetchBitmap.getWidth() == viewRect.width() && prefetchBitmap.getHeight() == viewRect.height();
     }
 
     /**
-     * 简要说一下绘画思路：
-     * 1. 先得到背景Path、填充和非填充Path
-     * 2. 按照填充和非填充情况绘制出Bitmap并与对应Path相交
-     * 3. 再将两个Bitmap合并到一个Bitmap中与背景Path相交
+     * 预先生成给定尺寸下绘制所需的几何（测量文字、生成轮廓和着色器），并可选地录制内容，只能在主线程调用
+     * 不调用{@link View#measure(int, int)}，不影响父控件的布局：按给定尺寸计算完成后恢复原来的测量结果，
+     * 生成的几何都按输入缓存，之后以相同尺寸布局时直接命中
      *
-     * @param canvas 画布
+     * @param width  控件将要显示的宽度
+     * @param height 控件将要显示的高度
+     * @param record 是否录制内容
+     * @return 录制的内容，不录制或内容每帧都在变化时返回null
      */
-    @Override
-    protected void onDraw(Canvas canvas) {
-        generateBackgroundPath();
-        generateFilledAndUnfilledAreaPath();
+    Picture prefetchContent(int width, int height, boolean record) {
+        final Rect savedTextRect = new Rect(textRect), savedViewRect = new Rect(viewRect);
+        final float savedRoundCornerRadius = roundCornerRadius, savedTextSize = fgPaint.getTextSize();
+        final int savedTextLayoutWidth = textLayoutWidth;
+        final float savedFillProgress = fillProgress;
+
+        measureContent(MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY), MeasureSpec.makeMeasureSpec(height, MeasureSpec.EXACTLY));
+        Picture picture = null;
+        if (!viewRect.isEmpty()) {
+            updateKaraokeProgress();
+            generateBackgroundPath();
+            generateFilledAndUnfilledAreaPath();
+            updatePaintShader();
+            getClipPath();
+            if (record) {
+                updateContentLayout(width, height);
+                picture = recordContent();
+            }
+        }
 
-        canvas.save();
+        textRect.set(savedTextRect);
+        viewRect.set(savedViewRect);
+        roundCornerRadius = savedRoundCornerRadius;
+        textLayoutWidth = savedTextLayoutWidth;
+        fillProgress = savedFillProgress;
+        if (fgPaint.getTextSize() != savedTextSize) {
+            // 自动字号可能修改了画笔
+            setPaintTextSize(savedTextSize);
+        }
+        return picture;
+    }
+
+    /**
+     * 将当前内容录制为Picture，光栅化可以放到后台线程进行
+     * 录制使用与onDraw相同的合成方式，预合成的内容与之后直接绘制的每一帧一致
+     * （参考实现在录制时就已合成好内容位图，Picture中只记录绘制位图）
+     *
+     * @return 录制的内容，内容每帧都在变化（水波纹动画、卡拉OK播放）时返回null
+     */
+    private Picture recordContent() {
+        if (viewRect.isEmpty() || karaokeFramePending || (getCalDividerType() == DIVIDER_TYPE_WAVE && waveDuration > 0)) {
+            return null;
+        }
+        Picture picture = new Picture();
+        Canvas canvas = picture.beginRecording(viewRect.width(), viewRect.height());
+        drawContent(canvas);
+        picture.endRecording();
+        return picture;
+    }
 
-        Bitmap contentBitmap = generateContentBitmap();
+    /**
+     * 开始一次预合成，在结果返回前不再使用旧的预合成内容
+     *
+     * @return 本次预合成的序号
+     */
+    int beginPrefetch() {
+        prefetchedVersion = -1;
+        return ++prefetchSequence;
+    }
 
-        canvas.drawBitmap(contentBitmap, 0, 0, commonPaint);
+    /**
+     * 获取预合成用的位图，交给光栅化线程后由其独占，直到{@link MultiColorTextView#finishPrefetch(int, int, Bitmap)}交回
+     * 正在显示的位图可能仍被画布或显示列表引用，所以不会复用，只复用从未显示过的备用位图
+     *
+     * @param width  宽度
+     * @param height 高度
+     * @return 预合成用的位图
+     */
+    Bitmap obtainPrefetchBitmap(int width, int height) {
+        Bitmap bitmap = prefetchSpareBitmap;
+        prefetchSpareBitmap = null;
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            RenderMetrics.recordBitmapAllocation(bitmap);
+        }
+        return bitmap;
+    }
 
-        canvas.restore();
+    /**
+     * 预合成完成（主线程），期间内容没有变化且没有新的预合成时才换上新的位图，否则留作备用
+     *
+     * @param sequence 预合成的序号
+     * @param version  录制时的内容版本
+     * @param bitmap   光栅化完成的位图
+     */
+    void finishPrefetch(int sequence, int version, Bitmap bitmap) {
+        if (sequence == prefetchSequence && version == contentVersion) {
+            // 旧的位图可能还被显示列表引用，直接丢弃
+            prefetchBitmap = bitmap;
+            prefetchedVersion = version;
+            // 内容没有变化，只需要让显示列表改用新的位图
+            invalidate();
+        } else if (sequence > releasedPrefetchSequence && prefetchSpareBitmap == null) {
+            prefetchSpareBitmap = bitmap;
+        }
+    }
+
+    /**
+     * 释放预合成的位图，正在进行的预合成结果也不再采用
+     */
+    private void releasePrefetch() {
+        prefetchBitmap = null;
+        prefetchSpareBitmap = null;
+        prefetchedVersion = -1;
+        releasedPrefetchSequence = ++prefetchSequence;
+    }
+
+    /**
+     * @return 当前内容版本
+     */
+    int getContentVersion() {
+        return contentVersion;
     }
 
     /**
@@ -299,46 +1469,153 @@ public class MultiColorTextView extends View {
      * @return 内容位图
      */
     private Bitmap generateContentBitmap() {
-        Bitmap contentBitmap = Bitmap.createBitmap(viewRect.width(), viewRect.height(), Bitmap.Config.ARGB_8888);
+        Bitmap contentBitmap = createViewBitmap();
         Canvas contentCanvas = new Canvas(contentBitmap);
 
-        // 填充区域颜色相反
-        bgPaint.setColor(fgColor);
-        fgPaint.setColor(bgColor);
-        drawContentInArea(contentCanvas, filledAreaPath);
-
-        bgPaint.setColor(bgColor);
-        fgPaint.setColor(fgColor);
-        drawContentInArea(contentCanvas, unfilledAreaPath);
+        drawContentInArea(contentCanvas, filledAreaPath, true);
+        drawContentInArea(contentCanvas, unfilledAreaPath, false);
 
         Bitmap bgBitmap = generateBackgroundBitmap();
-        contentCanvas.drawBitmap(bgBitmap, 0, 0, clipPaint);
+        contentCanvas.drawBitmap(bgBitmap, 0, 0, CLIP_PAINT);
 
         return contentBitmap;
     }
 
+    /**
+     * 创建与控件同样大小的位图
+     *
+     * @return 位图
+     */
+    private Bitmap createViewBitmap() {
+        Bitmap bitmap = Bitmap.createBitmap(viewRect.width(), viewRect.height(), Bitmap.Config.ARGB_8888);
+        RenderMetrics.recordBitmapAllocation(bitmap);
+        return bitmap;
+    }
+
     /**
      * 在给定区域绘制内容
      *
      * @param canvas      画布
      * @param contentArea 内容区域
+     * @param filled      是否是填充区域
      */
-    private void drawContentInArea(Canvas canvas, Path contentArea) {
-        Bitmap areaBitmap = Bitmap.createBitmap(viewRect.width(), viewRect.height(), Bitmap.Config.ARGB_8888);
+    private void drawContentInArea(Canvas canvas, Path contentArea, boolean filled) {
+        Bitmap areaBitmap = createViewBitmap();
         Canvas areaCanvas = new Canvas(areaBitmap);
 
         // DST
-        drawBackground(areaCanvas);
-        drawForeground(areaCanvas);
+        drawAreaContent(areaCanvas, filled);
         // 换成PorterDuff以解决clipPath无法抗锯齿问题
         // SRC
-        Bitmap contentAreaBitmap = Bitmap.createBitmap(viewRect.width(), viewRect.height(), Bitmap.Config.ARGB_8888);
+        Bitmap contentAreaBitmap = createViewBitmap();
         Canvas contentAreaCanvas = new Canvas(contentAreaBitmap);
-        contentAreaCanvas.drawPath(contentArea, bgPaint);
+        contentAreaCanvas.drawPath(contentArea, getAreaMaskPaint(filled));
+
+        areaCanvas.drawBitmap(contentAreaBitmap, 0, 0, CLIP_PAINT);
 
-        areaCanvas.drawBitmap(contentAreaBitmap, 0, 0, clipPaint);
+        canvas.drawBitmap(areaBitmap, 0, 0, COMMON_PAINT);
+    }
+
+    /**
+     * 绘制一个区域内的完整内容（尚未与区域相交）
+     *
+     * @param canvas 画布
+     * @param filled 是否是填充区域
+     */
+    private void drawAreaContent(Canvas canvas, boolean filled) {
+        if (clipType == CLIP_TYPE_TEXT) {
+            // 按文字轮廓裁剪时整块填充文字颜色，最后再与文字轮廓相交
+            canvas.drawRect(0, 0, viewRect.width(), viewRect.height(), getAreaFgPaint(filled));
+        } else {
+            drawBackground(canvas, getAreaBgPaint(filled));
+            drawForeground(canvas, filled);
+        }
+        drawStroke(canvas, filled);
+    }
+
+    /**
+     * 绘制形状边框和文字描边
+     * 描边轮廓按形状、尺寸和文字缓存，进度和角度变化时只是重新绘制已有轮廓
+     *
+     * @param canvas 画布
+     * @param filled 是否是填充区域
+     */
+    private void drawStroke(Canvas canvas, boolean filled) {
+        if (strokeWidth <= 0 || (strokeType & (STROKE_TYPE_BORDER | STROKE_TYPE_TEXT)) == 0) {
+            return;
+        }
+        if (strokePaint == null) {
+            strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            strokePaint.setStyle(Paint.Style.FILL);
+            filledStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            filledStrokePaint.setStyle(Paint.Style.FILL);
+            updatePaintColor();
+        }
+        final Paint paint = filled ? filledStrokePaint : strokePaint;
+        if ((strokeType & STROKE_TYPE_BORDER) != 0 && clipType != CLIP_TYPE_TEXT) {
+            if (borderStrokeCache == null) {
+                borderStrokeCache = new StrokeOutlineCache();
+            }
+            // 边框外侧一半会被形状裁掉，所以用两倍宽度描边
+            canvas.drawPath(borderStrokeCache.obtain(backgroundPath, backgroundPathVersion, strokeWidth * 2), paint);
+        }
+        if ((strokeType & STROKE_TYPE_TEXT) != 0) {
+            if (textStrokeCache == null) {
+                textStrokeCache = new StrokeOutlineCache();
+            }
+            Path textOutline = getTextOutline();
+            // 按文字轮廓裁剪时描边外侧一半会被裁掉，同样用两倍宽度
+            float width = clipType == CLIP_TYPE_TEXT ? strokeWidth * 2 : strokeWidth;
+            canvas.drawPath(textStrokeCache.obtain(textOutline, textOutlineCache.getVersion(), width), paint);
+        }
+    }
+
+    /**
+     * 在离屏图层中合成内容，效果与{@link MultiColorTextView#generateContentBitmap()}一致，但不分配位图
+     *
+     * @param canvas 画布
+     */
+    private void drawContentWithLayer(Canvas canvas) {
+        int saveCount = canvas.saveLayer(0, 0, viewRect.width(), viewRect.height(), null);
+
+        drawContentInAreaLayer(canvas, filledAreaPath, true);
+        drawContentInAreaLayer(canvas, unfilledAreaPath, false);
+
+        keepContentInPath(canvas, getClipPath(), Color.alpha(bgColor));
+
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * 在离屏图层中绘制给定区域的内容
+     *
+     * @param canvas      画布
+     * @param contentArea 内容区域
+     * @param filled      是否是填充区域
+     */
+    private void drawContentInAreaLayer(Canvas canvas, Path contentArea, boolean filled) {
+        int saveCount = canvas.saveLayer(0, 0, viewRect.width(), viewRect.height(), null);
+        drawAreaContent(canvas, filled);
+        keepContentInPath(canvas, contentArea, Color.alpha(filled ? fgColor : bgColor));
+        canvas.restoreToCount(saveCount);
+    }
 
-        canvas.drawBitmap(areaBitmap, 0, 0, commonPaint);
+    /**
+     * 只保留图层中Path内的内容
+     * 用反向填充的Path以DST_OUT擦除，边缘的覆盖率与DST_IN位图相交时一致，同样可以抗锯齿；
+     * 参考实现中遮罩是用带透明度的颜色画出来的，所以这里还要乘上同样的透明度
+     *
+     * @param canvas 画布
+     * @param path   需要保留的区域
+     * @param alpha  遮罩的透明度
+     */
+    private void keepContentInPath(Canvas canvas, Path path, int alpha) {
+        path.toggleInverseFillType();
+        canvas.drawPath(path, ERASE_PAINT);
+        path.toggleInverseFillType();
+        if (alpha < 0xFF) {
+            canvas.drawColor(Color.argb(alpha, 0, 0, 0), PorterDuff.Mode.DST_IN);
+        }
     }
 
     /**
@@ -347,41 +1624,162 @@ public class MultiColorTextView extends View {
      * @return 背景轮廓位图
      */
     private Bitmap generateBackgroundBitmap() {
-        Bitmap bgBitmap = Bitmap.createBitmap(viewRect.width(), viewRect.height(), Bitmap.Config.ARGB_8888);
+        Bitmap bgBitmap = createViewBitmap();
         Canvas bgCanvas = new Canvas(bgBitmap);
-        bgCanvas.drawPath(backgroundPath, bgPaint);
+        bgCanvas.drawPath(getClipPath(), getAreaMaskPaint(false));
         return bgBitmap;
     }
 
+    /**
+     * 获取最终裁剪内容用的轮廓
+     *
+     * @return 背景轮廓或文字轮廓
+     */
+    private Path getClipPath() {
+        if (clipType != CLIP_TYPE_TEXT) {
+            return backgroundPath;
+        }
+        return getTextOutline();
+    }
+
+    /**
+     * 获取控件坐标系下的文字轮廓
+     *
+     * @return 文字轮廓
+     */
+    private Path getTextOutline() {
+        if (textOutlineCache == null) {
+            textOutlineCache = new TextOutlineCache();
+        }
+        // 轮廓按文字、字号、字体和排版缓存，进度动画只会平移已有轮廓
+        return textOutlineCache.obtain(fgPaint, textContent, isMultiLine() ? getTextLayout() : null, getTextOriginX(), getTextOriginY());
+    }
+
     /**
      * 绘制前景
      *
      * @param canvas 画布
+     * @param filled 是否是填充区域
      */
-    private void drawForeground(Canvas canvas) {
-        float textHeight = textRect.height();
-        float textWidth = textRect.width();
+    private void drawForeground(Canvas canvas, boolean filled) {
+        if (isMultiLine()) {
+            canvas.save();
+            canvas.translate(getTextOriginX(), getTextOriginY());
+            (filled ? getFilledTextLayout() : getTextLayout()).draw(canvas);
+            canvas.restore();
+            return;
+        }
+
+        canvas.drawText(textContent, getTextOriginX(), getTextOriginY(), getAreaFgPaint(filled));
+    }
+
+    /**
+     * 获取多行排版结果，复用测量时的排版，进度和角度变化不会重新排版
+     *
+     * @return 多行排版结果
+     */
+    private StaticLayout getTextLayout() {
+        if (textLayoutCache == null) {
+            textLayoutCache = new TextLayoutCache();
+        }
+        // 预取可能用其他宽度排版过，按测量时的宽度获取（宽度相同时直接命中缓存）
+        return textLayoutCache.obtain(fgPaint, textContent, textLayoutWidth, maxLines, layoutAlignment);
+    }
 
-        // 文字要去除Padding居中
-        Rect contentRect = new Rect(viewRect);
-        contentRect.set(viewRect.left + getPaddingLeft(), viewRect.top + getPaddingTop(), viewRect.right - getPaddingRight(), viewRect.bottom - getPaddingBottom());
+    /**
+     * 获取填充区域的多行排版结果，与{@link MultiColorTextView#getTextLayout()}排版一致，只是绘制用的画笔不同
+     *
+     * @return 填充区域的多行排版结果
+     */
+    private StaticLayout getFilledTextLayout() {
+        if (filledTextLayoutCache == null) {
+            filledTextLayoutCache = new TextLayoutCache();
+        }
+        return filledTextLayoutCache.obtain(getAreaFgPaint(true), textContent, getTextLayout().getWidth(), maxLines, layoutAlignment);
+    }
+
+    /**
+     * 获取文字绘制起点的X坐标（文字去除Padding后水平居中）
+     * 单行时为基线起点，多行时为排版区域左边界
+     *
+     * @return 文字绘制起点的X坐标
+     */
+    private float getTextOriginX() {
+        float contentCenterX = (viewRect.left + getPaddingLeft() + viewRect.right - getPaddingRight()) / 2;
+        if (isMultiLine()) {
+            return contentCenterX - getTextLayout().getWidth() / 2.0f;
+        }
+        return contentCenterX - textRect.width() / 2.0f - textRect.left;
+    }
+
+    /**
+     * 获取文字绘制起点的Y坐标（文字去除Padding后垂直居中）
+     * 单行时为基线，多行时为排版区域上边界
+     *
+     * @return 文字绘制起点的Y坐标
+     */
+    private float getTextOriginY() {
+        float textHeight = textRect.height();
+        float contentCenterY = (viewRect.top + getPaddingTop() + viewRect.bottom - getPaddingBottom()) / 2;
+        if (isMultiLine()) {
+            return contentCenterY - textHeight / 2;
+        }
+        return contentCenterY + textHeight / 2 - textRect.bottom;
+    }
 
-        canvas.drawText(textContent, contentRect.centerX() - textWidth / 2 - textRect.left, contentRect.centerY() + textHeight / 2 - textRect.bottom, fgPaint);
+    /**
+     * 卡拉OK模式下根据播放时间更新填充进度（在测量、设置播放时间和时钟帧回调中调用，不在onDraw中修改状态）
+     * 字符宽度已缓存，这里只做二分查找，不会重新测量文字
+     */
+    private void updateKaraokeProgress() {
+        if (karaokeTimeline == null) {
+            return;
+        }
+        karaokeTimeline.measure(fgPaint, textContent);
+        float offset = karaokeTimeline.getOffset(karaokeTime);
+        if (offset <= 0) {
+            fillProgress = 0;
+        } else if (offset >= karaokeTimeline.getTotalWidth()) {
+            fillProgress = 1;
+        } else {
+            // 进度按形状在水平方向上的投影范围计算，自定义形状换算后分割线才能恰好落在唱到的文字上
+            generateBackgroundPath();
+            final float[] range = shapeProjectionRange;
+            getShapeProjectionRange(1, 0, range);
+            if (range[1] > range[0]) {
+                fillProgress = Math.max(0, Math.min(1, (getTextOriginX() + offset - range[0]) / (range[1] - range[0])));
+            }
+        }
     }
 
     /**
      * 绘制背景
      *
      * @param canvas 画布
+     * @param paint  背景画笔
      */
-    private void drawBackground(Canvas canvas) {
-        canvas.drawRect(0, 0, viewRect.width(), viewRect.height(), bgPaint);
+    private void drawBackground(Canvas canvas, Paint paint) {
+        canvas.drawRect(0, 0, viewRect.width(), viewRect.height(), paint);
     }
 
     /**
      * 生成背景轮廓Path
      */
     private void generateBackgroundPath() {
+        if (backgroundPath != null && backgroundPathShapeType == shapeType && backgroundPathWidth == viewRect.width()
+                && backgroundPathHeight == viewRect.height() && backgroundPathRadius == roundCornerRadius
+                && backgroundPathSvgShape == svgPathShape) {
+            // 形状和尺寸都没有变化
+            return;
+        }
+        backgroundPathShapeType = shapeType;
+        backgroundPathWidth = viewRect.width();
+        backgroundPathHeight = viewRect.height();
+        backgroundPathRadius = roundCornerRadius;
+        backgroundPathSvgShape = svgPathShape;
+        backgroundPathVersion++;
+
+        RenderMetrics.recordPathRebuild();
         if (backgroundPath == null) {
             backgroundPath = new Path();
         } else {
@@ -397,6 +1795,21 @@ public class MultiColorTextView extends View {
                 backgroundPath.addCircle(viewRect.centerX(), viewRect.centerY(), Math.min(viewRect.width(), viewRect.height()) / 2.0f, Path.Direction.CW);
                 break;
             }
+            case SHAPE_TYPE_PATH: {
+                if (svgPathShape != null) {
+                    // 只有尺寸变化时才重新缩放
+                    if (shapeMatrix == null) {
+                        shapeMatrix = new Matrix();
+                    }
+                    svgPathShape.getFitMatrix(new RectF(0, 0, viewRect.width(), viewRect.height()), shapeMatrix);
+                    svgPathShape.transform(shapeMatrix, backgroundPath);
+                    shapeOutlinePoints = svgPathShape.transformOutlinePoints(shapeMatrix, shapeOutlinePoints);
+                    break;
+                }
+                // 没有Path数据时按矩形处理
+                backgroundPath.addRect(0, 0, viewRect.width(), viewRect.height(), Path.Direction.CW);
+                break;
+            }
             case SHAPE_TYPE_RECT:
             default: {
                 backgroundPath.addRect(0, 0, viewRect.width(), viewRect.height(), Path.Direction.CW);
@@ -405,37 +1818,167 @@ public class MultiColorTextView extends View {
         }
     }
 
+    /**
+     * @return 是否使用自定义形状
+     */
+    private boolean isPathShape() {
+        return shapeType == SHAPE_TYPE_PATH && svgPathShape != null && shapeOutlinePoints != null;
+    }
+
+    /**
+     * 获取形状在推进方向上的投影范围
+     * 自定义形状使用轮廓采样点，其他形状使用控件矩形的四个顶点
+     *
+     * @param normalX 推进方向X分量
+     * @param normalY 推进方向Y分量
+     * @param range   输出的最小值和最大值
+     */
+    private void getShapeProjectionRange(float normalX, float normalY, float[] range) {
+        if (!isPathShape()) {
+            getRectProjectionRange(normalX, normalY, range);
+            return;
+        }
+        getPointsProjectionRange(shapeOutlinePoints, normalX, normalY, range);
+    }
+
+    /**
+     * 获取一组点在推进方向上的投影范围
+     *
+     * @param points  点的坐标（x, y交替）
+     * @param normalX 推进方向X分量
+     * @param normalY 推进方向Y分量
+     * @param range   输出的最小值和最大值
+     */
+    static void getPointsProjectionRange(float[] points, float normalX, float normalY, float[] range) {
+        float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+        for (int i = 0; i + 1 < points.length; i += 2) {
+            float projection = points[i] * normalX + points[i + 1] * normalY;
+            min = Math.min(min, projection);
+            max = Math.max(max, projection);
+        }
+        range[0] = min;
+        range[1] = max;
+    }
+
+    /**
+     * 获取控件矩形在推进方向上的投影范围
+     *
+     * @param normalX 推进方向X分量
+     * @param normalY 推进方向Y分量
+     * @param range   输出的最小值和最大值
+     */
+    private void getRectProjectionRange(float normalX, float normalY, float[] range) {
+        getRectProjectionRange(viewRect.width(), viewRect.height(), normalX, normalY, range);
+    }
+
+    /**
+     * 获取以原点为左上角的矩形在推进方向上的投影范围
+     *
+     * @param right   矩形宽度
+     * @param bottom  矩形高度
+     * @param normalX 推进方向X分量
+     * @param normalY 推进方向Y分量
+     * @param range   输出的最小值和最大值
+     */
+    static void getRectProjectionRange(float right, float bottom, float normalX, float normalY, float[] range) {
+        range[0] = Math.min(Math.min(0, right * normalX), Math.min(bottom * normalY, right * normalX + bottom * normalY));
+        range[1] = Math.max(Math.max(0, right * normalX), Math.max(bottom * normalY, right * normalX + bottom * normalY));
+    }
+
+    /**
+     * 计算分割线在控件矩形上的实际进度
+     * 矩形分割线的位置与进度呈线性关系（从矩形在推进方向上投影的最小值到最大值），
+     * 所以只要把进度从形状的投影范围换算到矩形的投影范围，就能让任意形状的0%和100%恰好对应形状的两端
+     *
+     * @param calAngle 分割线角度
+     * @return 实际进度
+     */
+    private float getDividerProgress(float calAngle) {
+        if (!isPathShape()) {
+            return fillProgress;
+        }
+        final double radians = Math.toRadians(calAngle);
+        final float normalX = (float) Math.cos(radians), normalY = (float) Math.sin(radians);
+        final float[] shapeRange = shapeProjectionRange, rectRange = rectProjectionRange;
+        getShapeProjectionRange(normalX, normalY, shapeRange);
+        getRectProjectionRange(normalX, normalY, rectRange);
+        if (rectRange[1] <= rectRange[0]) {
+            return fillProgress;
+        }
+        float projection = shapeRange[0] + (shapeRange[1] - shapeRange[0]) * fillProgress;
+        return Math.max(0, Math.min(1, (projection - rectRange[0]) / (rectRange[1] - rectRange[0])));
+    }
+
+    /**
+     * 获取实际使用的分割线类型
+     * 卡拉OK模式下始终使用直线分割，分割线才能与唱到的文字对齐
+     *
+     * @return 分割线类型
+     */
+    private int getCalDividerType() {
+        return karaokeTimeline != null ? DIVIDER_TYPE_LINE : dividerType;
+    }
+
+    /**
+     * 获取实际使用的分割线角度（0-360度）
+     *
+     * @return 分割线角度
+     */
+    private float getCalAngle() {
+        // 卡拉OK模式下始终沿文字从左到右填充
+        float calAngle = karaokeTimeline != null ? DIVIDER_ZERO_ANGLE : dividerAngle;
+
+        while (calAngle < 0) {
+            calAngle += DIVIDER_ENTIRE_ANGLE;
+        }
+        calAngle %= DIVIDER_ENTIRE_ANGLE;
+        return calAngle;
+    }
+
     /**
      * 分别生成填充和非填充区域轮廓Path
      */
     private void generateFilledAndUnfilledAreaPath() {
         if (filledAreaPath == null) {
             filledAreaPath = new Path();
-        } else {
-            filledAreaPath.reset();
         }
         if (unfilledAreaPath == null) {
             unfilledAreaPath = new Path();
-        } else {
-            unfilledAreaPath.reset();
         }
 
-        float calAngle = dividerAngle;
+        float calAngle = getCalAngle();
+        int calDividerType = getCalDividerType();
 
-        while (calAngle < 0) {
-            calAngle += DIVIDER_ENTIRE_ANGLE;
+        if (calDividerType == DIVIDER_TYPE_SWEEP) {
+            // 扇形分割在上一次的填充区域基础上增量更新，所以不能重置
+            generateSweepAreaPath(calAngle);
+            return;
+        }
+        if (sweepDivider != null) {
+            sweepDivider.invalidate();
+        }
+        RenderMetrics.recordPathRebuild();
+        filledAreaPath.reset();
+        unfilledAreaPath.reset();
+        unfilledAreaPath.setFillType(Path.FillType.WINDING);
+
+        if (calDividerType == DIVIDER_TYPE_WAVE) {
+            generateWaveAreaPath(calAngle);
+            return;
         }
-        calAngle %= DIVIDER_ENTIRE_ANGLE;
 
-        float[] pointArray = getStartAndEndPoint(calAngle);
+        dividerProgress = getDividerProgress(calAngle);
+        final float[] pointArray = dividerPoints;
+        getStartAndEndPoint(calAngle, pointArray);
 
         // 确定各个点的顺序
-        ArrayList<Integer> pointOrderList = getPointOrder(pointArray);
+        final int[] order = pointOrder;
+        int orderCount = getPointOrder(pointArray, order);
 
         // 按顺序填上点
         Path path = filledAreaPath;
-        for (int i = 0, size = pointOrderList.size(); i < size; i++) {
-            switch (pointOrderList.get(i)) {
+        for (int i = 0; i < orderCount; i++) {
+            switch (order[i]) {
                 case START_POINT: {
                     path = filledAreaPath;
                     path.moveTo(pointArray[0], pointArray[1]);
@@ -469,37 +2012,103 @@ public class MultiColorTextView extends View {
         }
         unfilledAreaPath.lineTo(pointArray[0], pointArray[1]);
 
-        switch (dividerType) {
-            case DIVIDER_TYPE_BESSEL: {
-                float controlPointX = (pointArray[0] + pointArray[2]) / 2 + (pointArray[1] - pointArray[3]) / 4;
-                float controlPointY = (pointArray[1] + pointArray[3]) / 2 + (pointArray[2] - pointArray[0]) / 4;
-                filledAreaPath.quadTo(controlPointX, controlPointY, pointArray[0], pointArray[1]);
-                unfilledAreaPath.quadTo(controlPointX, controlPointY, pointArray[2], pointArray[3]);
-                filledAreaPath.close();
-                unfilledAreaPath.close();
-                break;
-            }
-            case DIVIDER_TYPE_WAVE: {
-                float centerPointX = (pointArray[0] + pointArray[2]) / 2, centerPointY = (pointArray[1] + pointArray[3]) / 2;
-                float controlPoint1X = (pointArray[0] + centerPointX) / 2 + (pointArray[1] - pointArray[3]) / 8;
-                float controlPoint1Y = (pointArray[1] + centerPointY) / 2 + (pointArray[2] - pointArray[0]) / 8;
-                float controlPoint2X = (pointArray[2] + centerPointX) / 2 + (pointArray[3] - pointArray[1]) / 8;
-                float controlPoint2Y = (pointArray[3] + centerPointY) / 2 + (pointArray[0] - pointArray[2]) / 8;
-
-                unfilledAreaPath.quadTo(controlPoint1X, controlPoint1Y, centerPointX, centerPointY);
-                unfilledAreaPath.quadTo(controlPoint2X, controlPoint2Y, pointArray[2], pointArray[3]);
-                filledAreaPath.quadTo(controlPoint2X, controlPoint2Y, centerPointX, centerPointY);
-                filledAreaPath.quadTo(controlPoint1X, controlPoint1Y, pointArray[0], pointArray[1]);
-                filledAreaPath.close();
-                unfilledAreaPath.close();
-                break;
-            }
-            case DIVIDER_TYPE_LINE:
-            default: {
-                filledAreaPath.close();
-                unfilledAreaPath.close();
-                break;
-            }
+        switch (calDividerType) {
+            case DIVIDER_TYPE_BESSEL: {
+                float controlPointX = (pointArray[0] + pointArray[2]) / 2 + (pointArray[1] - pointArray[3]) / 4;
+                float controlPointY = (pointArray[1] + pointArray[3]) / 2 + (pointArray[2] - pointArray[0]) / 4;
+                filledAreaPath.quadTo(controlPointX, controlPointY, pointArray[0], pointArray[1]);
+                unfilledAreaPath.quadTo(controlPointX, controlPointY, pointArray[2], pointArray[3]);
+                filledAreaPath.close();
+                unfilledAreaPath.close();
+                break;
+            }
+            case DIVIDER_TYPE_LINE:
+            default: {
+                filledAreaPath.close();
+                unfilledAreaPath.close();
+                break;
+            }
+        }
+    }
+
+    /**
+     * 生成水波纹分割的填充和非填充区域
+     * 波形顶点按尺寸和波长缓存，这里只根据角度、进度和相位做变换
+     *
+     * @param calAngle 分割线角度
+     */
+    private void generateWaveAreaPath(float calAngle) {
+        if (waveDivider == null) {
+            waveDivider = new WaveDivider();
+        }
+        waveDivider.update(viewRect.width(), viewRect.height(), waveLength, waveAmplitude);
+
+        // 填充推进方向的单位向量
+        final double radians = Math.toRadians(calAngle);
+        final float normalX = (float) Math.cos(radians), normalY = (float) Math.sin(radians);
+        final float right = viewRect.width(), bottom = viewRect.height();
+
+        // 形状在推进方向上的投影范围，两端各留出一个振幅以保证0%和100%时波峰不露出
+        final float[] range = shapeProjectionRange;
+        getShapeProjectionRange(normalX, normalY, range);
+        float minProjection = range[0] - waveAmplitude;
+        float maxProjection = range[1] + waveAmplitude;
+        float projection = minProjection + (maxProjection - minProjection) * fillProgress;
+
+        // 将控件中心沿推进方向移动到分割线上作为波形中心
+        float centerX = right / 2, centerY = bottom / 2;
+        float offset = projection - (centerX * normalX + centerY * normalY);
+        waveDivider.generate(centerX + normalX * offset, centerY + normalY * offset, calAngle, wavePhase, filledAreaPath, unfilledAreaPath);
+    }
+
+    /**
+     * 生成扇形分割的填充和非填充区域
+     * 弧线顶点按尺寸和起始角度缓存，进度前进时只追加新扫过的顶点
+     *
+     * @param calAngle 指针起始角度（0度为12点钟方向）
+     */
+    private void generateSweepAreaPath(float calAngle) {
+        if (sweepDivider == null) {
+            sweepDivider = new SweepDivider();
+        }
+        // Path的角度以3点钟方向为0度
+        sweepDivider.update(viewRect.width(), viewRect.height(), calAngle - DIVIDER_QUARTER_ANGLE);
+        sweepDivider.generate(fillProgress, filledAreaPath, unfilledAreaPath);
+    }
+
+    /**
+     * 根据分割线类型开始或停止水波纹相位动画
+     */
+    private void updateWaveAnimator() {
+        if (getCalDividerType() != DIVIDER_TYPE_WAVE || waveDuration <= 0 || !isAttachedToWindow()) {
+            stopWaveAnimator();
+            return;
+        }
+        if (waveAnimator == null) {
+            waveAnimator = ValueAnimator.ofFloat(0, 1);
+            waveAnimator.setRepeatCount(ValueAnimator.INFINITE);
+            waveAnimator.setRepeatMode(ValueAnimator.RESTART);
+            waveAnimator.setInterpolator(new LinearInterpolator());
+            waveAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    wavePhase = animation.getAnimatedFraction();
+                    invalidateContent();
+                }
+            });
+        }
+        waveAnimator.setDuration(waveDuration);
+        if (!waveAnimator.isStarted()) {
+            waveAnimator.start();
+        }
+    }
+
+    /**
+     * 停止水波纹相位动画
+     */
+    private void stopWaveAnimator() {
+        if (waveAnimator != null) {
+            waveAnimator.cancel();
         }
     }
 
@@ -507,36 +2116,41 @@ public class MultiColorTextView extends View {
      * 获取顶点顺序
      *
      * @param pointArray 分割线和矩形的两个交点
+     * @param order      输出的顶点顺序
+     * @return 顶点个数
      */
-    private ArrayList<Integer> getPointOrder(float[] pointArray) {
-        ArrayList<Integer> pointOrderList = new ArrayList<>(6);
+    private int getPointOrder(float[] pointArray, int[] order) {
+        int count = 0;
+        boolean hasEndPoint = false;
         float startPointWeight = getPointWeight(pointArray[0], pointArray[1]);
         float endPointWeight = getPointWeight(pointArray[2], pointArray[3]);
 
         if (endPointWeight < startPointWeight) {
             endPointWeight += RECT_LINE_COUNT;
         }
-        pointOrderList.add(START_POINT);
+        order[count++] = START_POINT;
         // 如果是填充0%那么起始点和终点是同一个点，且终点就在起始点之后
-        if (fillProgress == 0) {
-            pointOrderList.add(END_POINT);
+        if (dividerProgress == 0) {
+            order[count++] = END_POINT;
+            hasEndPoint = true;
         }
         for (int i = (int) Math.ceil(startPointWeight); i < startPointWeight + RECT_LINE_COUNT; i++) {
             if (i == startPointWeight) {
                 continue;
             }
             if (i - endPointWeight >= 0 && i - endPointWeight < 1) {
-                pointOrderList.add(END_POINT);
+                order[count++] = END_POINT;
+                hasEndPoint = true;
             }
             if (i != endPointWeight) {
-                pointOrderList.add(i % RECT_LINE_COUNT);
+                order[count++] = i % RECT_LINE_COUNT;
             }
         }
         // 如果是填充100%那么起始点和终点是同一个点，且终点在最后
-        if (fillProgress == 1 && !pointOrderList.contains(END_POINT)) {
-            pointOrderList.add(END_POINT);
+        if (dividerProgress == 1 && !hasEndPoint) {
+            order[count++] = END_POINT;
         }
-        return pointOrderList;
+        return count;
     }
 
     /**
@@ -566,46 +2180,46 @@ public class MultiColorTextView extends View {
      * 获取分割线和矩形的交点
      *
      * @param calAngle 分割线角度
-     * @return 两个交点
+     * @param points   输出的两个交点
      */
-    private float[] getStartAndEndPoint(float calAngle) {
+    private void getStartAndEndPoint(float calAngle, float[] points) {
         final float right = viewRect.width(), bottom = viewRect.height();
         float startPointX = 0, startPointY = 0, endPointX = right, endPointY = bottom;
 
         if (calAngle == DIVIDER_ZERO_ANGLE) {
             // 角度为0度即自左到右
-            startPointX = endPointX = right * fillProgress;
+            startPointX = endPointX = right * dividerProgress;
             startPointY = bottom;
             endPointY = 0;
         } else if (calAngle == DIVIDER_HALF_ANGLE) {
             // 角度为180度即自右向左
-            startPointX = endPointX = right * (1 - fillProgress);
+            startPointX = endPointX = right * (1 - dividerProgress);
             startPointY = 0;
             endPointY = bottom;
         } else if (calAngle == DIVIDER_QUARTER_ANGLE) {
             // 角度为90度即自上而下
             startPointX = 0;
-            startPointY = endPointY = bottom * fillProgress;
+            startPointY = endPointY = bottom * dividerProgress;
             endPointX = right;
         } else if (calAngle == DIVIDER_THREE_QUARTER_ANGLE) {
             // 角度为270度即自下而上
             startPointX = right;
-            startPointY = endPointY = bottom * (1 - fillProgress);
+            startPointY = endPointY = bottom * (1 - dividerProgress);
             endPointX = 0;
         } else {
             final float tanAngle = (float) Math.tan(Math.toRadians(calAngle));
             // 四个可能是交点的点
-            float[] pointArray = new float[8];
+            final float[] pointArray = dividerCandidatePoints;
             pointArray[0] = 0;
             pointArray[2] = right;
             pointArray[5] = 0;
             pointArray[7] = bottom;
             if (calAngle > DIVIDER_ZERO_ANGLE && calAngle < DIVIDER_QUARTER_ANGLE) {
                 // 角度大于0小于90度
-                pointArray[1] = (right / tanAngle + bottom) * fillProgress;
-                pointArray[3] = (fillProgress - 1) / tanAngle * right + fillProgress * bottom;
-                pointArray[4] = right * fillProgress + tanAngle * bottom * fillProgress;
-                pointArray[6] = right * fillProgress + (fillProgress - 1) * tanAngle * bottom;
+                pointArray[1] = (right / tanAngle + bottom) * dividerProgress;
+                pointArray[3] = (dividerProgress - 1) / tanAngle * right + dividerProgress * bottom;
+                pointArray[4] = right * dividerProgress + tanAngle * bottom * dividerProgress;
+                pointArray[6] = right * dividerProgress + (dividerProgress - 1) * tanAngle * bottom;
 
                 if (pointArray[1] >= 0 && pointArray[1] <= bottom) {
                     startPointX = pointArray[0];
@@ -624,10 +2238,10 @@ public class MultiColorTextView extends View {
                 }
             } else if (calAngle > DIVIDER_QUARTER_ANGLE && calAngle < DIVIDER_HALF_ANGLE) {
                 // 角度大于90小于180度
-                pointArray[1] = (1 - fillProgress) / tanAngle * right + fillProgress * bottom;
-                pointArray[3] = -fillProgress / tanAngle * right + fillProgress * bottom;
-                pointArray[4] = (1 - fillProgress) * right + fillProgress * tanAngle * bottom;
-                pointArray[6] = (1 - fillProgress) * right + (fillProgress - 1) * tanAngle * bottom;
+                pointArray[1] = (1 - dividerProgress) / tanAngle * right + dividerProgress * bottom;
+                pointArray[3] = -dividerProgress / tanAngle * right + dividerProgress * bottom;
+                pointArray[4] = (1 - dividerProgress) * right + dividerProgress * tanAngle * bottom;
+                pointArray[6] = (1 - dividerProgress) * right + (dividerProgress - 1) * tanAngle * bottom;
 
                 if (pointArray[1] >= 0 && pointArray[1] <= bottom) {
                     startPointX = pointArray[0];
@@ -646,10 +2260,10 @@ public class MultiColorTextView extends View {
                 }
             } else if (calAngle > DIVIDER_HALF_ANGLE && calAngle < DIVIDER_THREE_QUARTER_ANGLE) {
                 // 角度大于180小于270度
-                pointArray[1] = (1 - fillProgress) * (right / tanAngle + bottom);
-                pointArray[3] = -fillProgress / tanAngle * right + (1 - fillProgress) * bottom;
-                pointArray[4] = (1 - fillProgress) * right + (1 - fillProgress) * tanAngle * bottom;
-                pointArray[6] = (1 - fillProgress) * right - fillProgress * tanAngle * bottom;
+                pointArray[1] = (1 - dividerProgress) * (right / tanAngle + bottom);
+                pointArray[3] = -dividerProgress / tanAngle * right + (1 - dividerProgress) * bottom;
+                pointArray[4] = (1 - dividerProgress) * right + (1 - dividerProgress) * tanAngle * bottom;
+                pointArray[6] = (1 - dividerProgress) * right - dividerProgress * tanAngle * bottom;
 
                 if (pointArray[4] >= 0 && pointArray[4] <= right) {
                     startPointX = pointArray[4];
@@ -668,10 +2282,10 @@ public class MultiColorTextView extends View {
                 }
             } else {
                 // 角度大于270小于360度
-                pointArray[1] = fillProgress / tanAngle * right + (1 - fillProgress) * bottom;
-                pointArray[3] = (fillProgress - 1) / tanAngle * right + (1 - fillProgress) * bottom;
-                pointArray[4] = fillProgress * right + (1 - fillProgress) * tanAngle * bottom;
-                pointArray[6] = fillProgress * right - fillProgress * tanAngle * bottom;
+                pointArray[1] = dividerProgress / tanAngle * right + (1 - dividerProgress) * bottom;
+                pointArray[3] = (dividerProgress - 1) / tanAngle * right + (1 - dividerProgress) * bottom;
+                pointArray[4] = dividerProgress * right + (1 - dividerProgress) * tanAngle * bottom;
+                pointArray[6] = dividerProgress * right - dividerProgress * tanAngle * bottom;
 
                 if (pointArray[3] >= 0 && pointArray[3] <= bottom) {
                     startPointX = pointArray[2];
@@ -691,7 +2305,10 @@ public class MultiColorTextView extends View {
             }
         }
 
-        return new float[]{startPointX, startPointY, endPointX, endPointY};
+        points[0] = startPointX;
+        points[1] = startPointY;
+        points[2] = endPointX;
+        points[3] = endPointY;
     }
 
     public String getTextContent() {
@@ -700,7 +2317,8 @@ public class MultiColorTextView extends View {
 
     public void setTextContent(String textContent) {
         this.textContent = textContent;
-        invalidate();
+        requestLayout();
+        invalidateContent();
     }
 
     public int getTextSize() {
@@ -709,7 +2327,79 @@ public class MultiColorTextView extends View {
 
     public void setTextSize(int textSize) {
         this.textSize = textSize;
-        invalidate();
+        updatePaintTextSize();
+        requestLayout();
+        invalidateContent();
+    }
+
+    public boolean isAutoSize() {
+        return autoSize;
+    }
+
+    /**
+     * 设置是否根据控件大小自动调整文字大小
+     * 关闭时恢复为{@link MultiColorTextView#setTextSize(int)}设置的大小
+     *
+     * @param autoSize 是否自动调整
+     */
+    public void setAutoSize(boolean autoSize) {
+        this.autoSize = autoSize;
+        if (!autoSize) {
+            updatePaintTextSize();
+        }
+        requestLayout();
+        invalidateContent();
+    }
+
+    /**
+     * 设置自动调整文字大小的范围
+     *
+     * @param minTextSize 最小文字大小
+     * @param maxTextSize 最大文字大小
+     */
+    public void setAutoSizeTextSizeRange(int minTextSize, int maxTextSize) {
+        this.autoSizeMinTextSize = minTextSize;
+        this.autoSizeMaxTextSize = maxTextSize;
+        requestLayout();
+        invalidateContent();
+    }
+
+    public int getAutoSizeMinTextSize() {
+        return autoSizeMinTextSize;
+    }
+
+    public int getAutoSizeMaxTextSize() {
+        return autoSizeMaxTextSize;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * 设置最大行数
+     *
+     * @param maxLines 最大行数，大于1时启用多行模式
+     */
+    public void setMaxLines(int maxLines) {
+        this.maxLines = maxLines;
+        requestLayout();
+        invalidateContent();
+    }
+
+    public Layout.Alignment getLayoutAlignment() {
+        return layoutAlignment;
+    }
+
+    /**
+     * 设置多行文字的对齐方式
+     *
+     * @param layoutAlignment 对齐方式
+     */
+    public void setLayoutAlignment(Layout.Alignment layoutAlignment) {
+        this.layoutAlignment = layoutAlignment;
+        requestLayout();
+        invalidateContent();
     }
 
     public int getBgColor() {
@@ -718,7 +2408,8 @@ public class MultiColorTextView extends View {
 
     public void setBgColor(int bgColor) {
         this.bgColor = bgColor;
-        invalidate();
+        updatePaintColor();
+        invalidateContent();
     }
 
     public int getFgColor() {
@@ -727,7 +2418,77 @@ public class MultiColorTextView extends View {
 
     public void setFgColor(int fgColor) {
         this.fgColor = fgColor;
-        invalidate();
+        updatePaintColor();
+        invalidateContent();
+    }
+
+    public int getGradientType() {
+        return gradientType;
+    }
+
+    /**
+     * 设置渐变类型
+     *
+     * @param gradientType 渐变类型
+     */
+    public void setGradientType(int gradientType) {
+        this.gradientType = gradientType;
+        invalidateContent();
+    }
+
+    public int getGradientAngle() {
+        return gradientAngle;
+    }
+
+    public void setGradientAngle(int gradientAngle) {
+        this.gradientAngle = gradientAngle;
+        invalidateContent();
+    }
+
+    public int getBgEndColor() {
+        return bgEndColor;
+    }
+
+    public void setBgEndColor(int bgEndColor) {
+        this.bgEndColor = bgEndColor;
+        invalidateContent();
+    }
+
+    public int getFgEndColor() {
+        return fgEndColor;
+    }
+
+    public void setFgEndColor(int fgEndColor) {
+        this.fgEndColor = fgEndColor;
+        invalidateContent();
+    }
+
+    public Bitmap getBgPattern() {
+        return bgPattern;
+    }
+
+    /**
+     * 设置背景图案，不为null时优先于渐变
+     *
+     * @param bgPattern 平铺的图案
+     */
+    public void setBgPattern(Bitmap bgPattern) {
+        this.bgPattern = bgPattern;
+        invalidateContent();
+    }
+
+    public Bitmap getFgPattern() {
+        return fgPattern;
+    }
+
+    /**
+     * 设置前景图案，不为null时优先于渐变
+     *
+     * @param fgPattern 平铺的图案
+     */
+    public void setFgPattern(Bitmap fgPattern) {
+        this.fgPattern = fgPattern;
+        invalidateContent();
     }
 
     public int getShapeType() {
@@ -737,7 +2498,95 @@ public class MultiColorTextView extends View {
     public void setShapeType(int shapeType) {
         this.shapeType = shapeType;
         requestLayout();
-        invalidate();
+        invalidateContent();
+    }
+
+    public int getRenderBackend() {
+        return renderBackend;
+    }
+
+    /**
+     * 设置内容合成方式，不同方式的结果可以用androidTest中的GoldenImageVerifier逐像素对比
+     *
+     * @param renderBackend 合成方式
+     */
+    public void setRenderBackend(int renderBackend) {
+        this.renderBackend = renderBackend;
+        invalidateContent();
+    }
+
+    public String getShapePathData() {
+        return shapePathData;
+    }
+
+    /**
+     * 设置自定义形状的SVG Path数据，形状会等比缩放并居中到控件区域
+     * 相同的Path数据在所有控件间只解析一次
+     *
+     * @param shapePathData SVG Path数据（即path元素的d属性）
+     * @throws IllegalArgumentException Path数据格式错误
+     */
+    public void setShapePathData(String shapePathData) {
+        setShapePathDataInternal(shapePathData);
+        requestLayout();
+        invalidateContent();
+    }
+
+    private void setShapePathDataInternal(String shapePathData) {
+        this.shapePathData = shapePathData;
+        svgPathShape = shapePathData == null ? null : SvgPathShape.obtain(shapePathData);
+    }
+
+    public int getStrokeType() {
+        return strokeType;
+    }
+
+    /**
+     * 设置描边类型
+     *
+     * @param strokeType {@link MultiColorTextView#STROKE_TYPE_BORDER}和{@link MultiColorTextView#STROKE_TYPE_TEXT}的组合
+     */
+    public void setStrokeType(int strokeType) {
+        this.strokeType = strokeType;
+        invalidateContent();
+    }
+
+    public float getStrokeWidth() {
+        return strokeWidth;
+    }
+
+    public void setStrokeWidth(float strokeWidth) {
+        this.strokeWidth = strokeWidth;
+        invalidateContent();
+    }
+
+    public int getStrokeColor() {
+        return strokeColor;
+    }
+
+    public void setStrokeColor(int strokeColor) {
+        this.strokeColor = strokeColor;
+        updatePaintColor();
+        invalidateContent();
+    }
+
+    public int getFilledStrokeColor() {
+        return filledStrokeColor;
+    }
+
+    public void setFilledStrokeColor(int filledStrokeColor) {
+        this.filledStrokeColor = filledStrokeColor;
+        updatePaintColor();
+        invalidateContent();
+    }
+
+    public int getClipType() {
+        return clipType;
+    }
+
+    public void setClipType(int clipType) {
+        this.clipType = clipType;
+        invalidateContent();
     }
 
     public int getDividerType() {
@@ -746,7 +2595,8 @@ public class MultiColorTextView extends View {
 
     public void setDividerType(int dividerType) {
         this.dividerType = dividerType;
-        invalidate();
+        updateWaveAnimator();
+        invalidateContent();
     }
 
     public float getFillProgress() {
@@ -755,7 +2605,7 @@ public class MultiColorTextView extends View {
 
     public void setFillProgress(float fillProgress) {
         this.fillProgress = fillProgress;
-        invalidate();
+        invalidateContent();
     }
 
     public int getDividerAngle() {
@@ -764,6 +2614,289 @@ public class MultiColorTextView extends View {
 
     public void setDividerAngle(int dividerAngle) {
         this.dividerAngle = dividerAngle;
-        invalidate();
+        invalidateContent();
+    }
+
+    public float getWaveAmplitude() {
+        return waveAmplitude;
+    }
+
+    public void setWaveAmplitude(float waveAmplitude) {
+        this.waveAmplitude = waveAmplitude;
+        invalidateContent();
+    }
+
+    public float getWaveLength() {
+        return waveLength;
+    }
+
+    public void setWaveLength(float waveLength) {
+        this.waveLength = waveLength;
+        invalidateContent();
+    }
+
+    public float getWavePhase() {
+        return wavePhase;
+    }
+
+    /**
+     * 手动设置水波纹相位，如果需要手动控制请先通过{@link MultiColorTextView#setWaveDuration(int)}关闭自动播放
+     *
+     * @param wavePhase 相位（一个周期对应一个波长）
+     */
+    public void setWavePhase(float wavePhase) {
+        this.wavePhase = wavePhase;
+        invalidateContent();
+    }
+
+    public int getWaveDuration() {
+        return waveDuration;
+    }
+
+    public void setWaveDuration(int waveDuration) {
+        this.waveDuration = waveDuration;
+        updateWaveAnimator();
+    }
+
+    /**
+     * 设置卡拉OK歌词条目，进入卡拉OK模式后填充进度由播放时间决定，且始终用直线从左到右填充（忽略分割线类型和角度）
+     * 卡拉OK模式只适用于单行文字
+     *
+     * @param entries 歌词条目，传入null或空列表时退出卡拉OK模式
+     */
+    public void setKaraokeEntries(@Nullable List<KaraokeEntry> entries) {
+        karaokeTimeline = entries == null || entries.isEmpty() ? null : new KaraokeTimeline(entries);
+        updateWaveAnimator();
+        updateKaraokeProgress();
+        if (karaokeClock != null) {
+            scheduleKaraokeFrame();
+        }
+        invalidateContent();
+    }
+
+    public long getKaraokeTime() {
+        return karaokeTime;
+    }
+
+    /**
+     * 手动设置卡拉OK播放时间
+     *
+     * @param karaokeTime 播放时间（毫秒）
+     */
+    public void setKaraokeTime(long karaokeTime) {
+        this.karaokeTime = karaokeTime;
+        updateKaraokeProgress();
+        invalidateContent();
+    }
+
+    /**
+     * 开始跟随播放时钟按屏幕刷新率更新卡拉OK进度
+     * 播放时间超过最后一个条目的结束时间后自动停止更新，播放位置回退后需要重新调用
+     *
+     * @param karaokeClock 播放时钟
+     */
+    public void startKaraoke(KaraokeClock karaokeClock) {
+        this.karaokeClock = karaokeClock;
+        scheduleKaraokeFrame();
+    }
+
+    /**
+     * 停止跟随播放时钟，进度停留在当前位置
+     */
+    public void stopKaraoke() {
+        this.karaokeClock = null;
+        removeCallbacks(karaokeFrameRunnable);
+        karaokeFramePending = false;
+    }
+
+    /**
+     * 安排下一帧的卡拉OK更新
+     */
+    private void scheduleKaraokeFrame() {
+        if (karaokeFramePending || karaokeTimeline == null || !isAttachedToWindow()) {
+            return;
+        }
+        karaokeFramePending = true;
+        postOnAnimation(karaokeFrameRunnable);
+    }
+
+    public int getTouchMode() {
+        return touchMode;
+    }
+
+    /**
+     * 设置触摸模式
+     *
+     * @param touchMode 触摸模式
+     */
+    public void setTouchMode(int touchMode) {
+        this.touchMode = touchMode;
+    }
+
+    public boolean isTouchPrediction() {
+        return touchPrediction;
+    }
+
+    /**
+     * 设置是否预测触摸位置
+     * 开启后按触摸速度向前预测约一帧的位置，拖动更跟手，但快速变向时会有轻微过冲
+     *
+     * @param touchPrediction 是否预测
+     */
+    public void setTouchPrediction(boolean touchPrediction) {
+        this.touchPrediction = touchPrediction;
+    }
+
+    public void setOnScrubListener(OnScrubListener onScrubListener) {
+        this.onScrubListener = onScrubListener;
+    }
+
+    public boolean isAutoLayer() {
+        return autoLayer;
+    }
+
+    /**
+     * 设置是否自动管理图层
+     * 开启后内容稳定时缓存到图层中（父控件重绘时不再重新合成），内容变化时去掉图层直接绘制，
+     * 会覆盖通过{@link View#setLayerType(int, Paint)}设置的图层类型
+     *
+     * @param autoLayer 是否自动管理
+     */
+    public void setAutoLayer(boolean autoLayer) {
+        setAutoLayerInternal(autoLayer);
+    }
+
+    public int getLayerSettleDelay() {
+        return layerSettleDelay;
+    }
+
+    /**
+     * 设置内容停止变化多久后重新缓存到图层中
+     *
+     * @param layerSettleDelay 稳定时间（毫秒）
+     */
+    public void setLayerSettleDelay(int layerSettleDelay) {
+        this.layerSettleDelay = layerSettleDelay;
+    }
+
+    public boolean isLayerCached() {
+        return layerCached;
+    }
+
+    /**
+     * 获取累计缓存在图层中的时间（不含当前状态）
+     *
+     * @return 时间（毫秒）
+     */
+    public long getCachedTimeMillis() {
+        return cachedTimeMillis;
+    }
+
+    /**
+     * 获取累计直接绘制的时间（不含当前状态）
+     *
+     * @return 时间（毫秒）
+     */
+    public long getLiveTimeMillis() {
+        return liveTimeMillis;
+    }
+
+    public void setOnLayerStateChangeListener(OnLayerStateChangeListener onLayerStateChangeListener) {
+        this.onLayerStateChangeListener = onLayerStateChangeListener;
+    }
+
+    /**
+     * 图层状态变化监听
+     */
+    public interface OnLayerStateChangeListener {
+        /**
+         * 图层状态变化
+         *
+         * @param view                控件
+         * @param cached              是否已缓存到图层中
+         * @param previousStateMillis 上一个状态持续的时间（毫秒）
+         */
+        void onLayerStateChanged(MultiColorTextView view, boolean cached, long previousStateMillis);
+    }
+
+    /**
+     * 拖动监听
+     */
+    public interface OnScrubListener {
+        /**
+         * 开始拖动
+         *
+         * @param view 控件
+         */
+        void onStartTrackingTouch(MultiColorTextView view);
+
+        /**
+         * 拖动改变了填充进度或分割线角度（每帧最多回调一次）
+         *
+         * @param view         控件
+         * @param fillProgress 填充进度
+         * @param dividerAngle 分割线角度
+         */
+        void onScrubChanged(MultiColorTextView view, float fillProgress, int dividerAngle);
+
+        /**
+         * 结束拖动
+         *
+         * @param view 控件
+         */
+        void onStopTrackingTouch(MultiColorTextView view);
+    }
+
+    /**
+     * 卡拉OK播放时钟
+     */
+    public interface KaraokeClock {
+        /**
+         * @return 当前播放时间（毫秒），例如{@link android.media.MediaPlayer#getCurrentPosition()}
+         */
+        long getPlaybackTime();
+    }
+
+    /**
+     * 卡拉OK歌词条目：在[startTime, endTime]时间内把[start, end)范围的字符从左到右填满
+     */
+    public static class KaraokeEntry {
+        private int start;
+        private int end;
+        private long startTime;
+        private long endTime;
+
+        public KaraokeEntry(int start, int end, long startTime, long endTime) {
+            this.start = start;
+            this.end = end;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public long getEndTime() {
+            return endTime;
+        }
+
+        @Override
+        public String toString() {
+            return "KaraokeEntry{" +
+                    "start=" + start +
+                    ", end=" + end +
+                    ", startTime=" + startTime +
+                    ", endTime=" + endTime +
+                    '}';
+        }
     }
 }
@@ -0,0 +1,226 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Bitmap;
+import android.os.Trace;
+
+/**
+ * 绘制流程统计
+ * 各阶段始终用{@link Trace}标记到系统Trace中（没有抓取Trace时开销可以忽略），普通的systrace就能看到；
+ * 统计默认关闭，关闭时每个统计点只有一次布尔判断，开启后统计各阶段耗时分布、位图分配字节数、Path重建次数和缓存命中率
+ *
+ * @date 2026/10/19
+ */
+
+public final class RenderMetrics {
+    /**
+     * 绘制阶段
+     */
+    public static final int STAGE_MEASURE = 0, STAGE_BACKGROUND_PATH = 1, STAGE_AREA_PATH = 2, STAGE_CONTENT_BITMAP = 3, STAGE_DRAW_BITMAP = 4;
+    public static final int STAGE_COUNT = 5;
+    /**
+     * 缓存类型
+     */
+    public static final int CACHE_WAVE = 0, CACHE_SWEEP = 1, CACHE_TEXT_LAYOUT = 2, CACHE_TEXT_OUTLINE = 3, CACHE_KARAOKE = 4, CACHE_SHAPE_PATH = 5, CACHE_FILL_SHADER = 6, CACHE_STROKE = 7, CACHE_AUTO_SIZE = 8;
+    public static final int CACHE_COUNT = 9;
+    /**
+     * 耗时分布的桶数，第i个桶（i大于0）统计[2^(i-1), 2^i)微秒的耗时，第0个桶统计不足1微秒的耗时
+     */
+    public static final int BUCKET_COUNT = 24;
+
+    private static final String[] STAGE_NAMES = {
+            "MultiColorTextView#onMeasure",
+            "MultiColorTextView#generateBackgroundPath",
+            "MultiColorTextView#generateFilledAndUnfilledAreaPath",
+            "MultiColorTextView#generateContentBitmap",
+            "MultiColorTextView#drawBitmap"
+    };
+
+    private static volatile boolean enabled;
+    private static volatile Listener listener;
+
+    private static final long[][] stageHistograms = new long[STAGE_COUNT][BUCKET_COUNT];
+    private static final long[] stageTotalNanos = new long[STAGE_COUNT];
+    private static final long[] stageCounts = new long[STAGE_COUNT];
+    private static final long[] cacheHits = new long[CACHE_COUNT];
+    private static final long[] cacheMisses = new long[CACHE_COUNT];
+    private static long bitmapBytesAllocated;
+    private static long bitmapAllocationCount;
+    private static long pathRebuildCount;
+
+    private RenderMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开启或关闭统计
+     *
+     * @param enabled 是否开启
+     */
+    public static void setEnabled(boolean enabled) {
+        RenderMetrics.enabled = enabled;
+    }
+
+    /**
+     * 设置阶段耗时监听，回调发生在绘制线程上
+     *
+     * @param listener 监听
+     */
+    public static void setListener(Listener listener) {
+        RenderMetrics.listener = listener;
+    }
+
+    /**
+     * 开始一个阶段，每次调用都必须有对应的{@link RenderMetrics#endStage(int, long)}
+     *
+     * @param stage 阶段
+     * @return 开始时间，未开启统计时返回0
+     */
+    static long beginStage(int stage) {
+        Trace.beginSection(STAGE_NAMES[stage]);
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * 结束一个阶段
+     *
+     * @param stage     阶段
+     * @param startTime {@link RenderMetrics#beginStage(int)}的返回值
+     */
+    static void endStage(int stage, long startTime) {
+        Trace.endSection();
+        if (startTime == 0) {
+            return;
+        }
+        long duration = System.nanoTime() - startTime;
+
+        int bucket = Math.min(64 - Long.numberOfLeadingZeros(duration / 1000), BUCKET_COUNT - 1);
+        synchronized (RenderMetrics.class) {
+            stageHistograms[stage][bucket]++;
+            stageTotalNanos[stage] += duration;
+            stageCounts[stage]++;
+        }
+        Listener currentListener = listener;
+        if (currentListener != null) {
+            currentListener.onStageFinished(stage, duration);
+        }
+    }
+
+    static void recordBitmapAllocation(Bitmap bitmap) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (RenderMetrics.class) {
+            bitmapBytesAllocated += bitmap.getByteCount();
+            bitmapAllocationCount++;
+        }
+    }
+
+    static void recordPathRebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (RenderMetrics.class) {
+            pathRebuildCount++;
+        }
+    }
+
+    static void recordCacheLookup(int cache, boolean hit) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (RenderMetrics.class) {
+            if (hit) {
+                cacheHits[cache]++;
+            } else {
+                cacheMisses[cache]++;
+            }
+        }
+    }
+
+    /**
+     * 获取阶段耗时分布
+     *
+     * @param stage 阶段
+     * @return 各个桶的次数（副本）
+     */
+    public static synchronized long[] getStageHistogram(int stage) {
+        return stageHistograms[stage].clone();
+    }
+
+    public static synchronized long getStageCount(int stage) {
+        return stageCounts[stage];
+    }
+
+    public static synchronized long getStageTotalNanos(int stage) {
+        return stageTotalNanos[stage];
+    }
+
+    public static synchronized long getBitmapBytesAllocated() {
+        return bitmapBytesAllocated;
+    }
+
+    public static synchronized long getBitmapAllocationCount() {
+        return bitmapAllocationCount;
+    }
+
+    public static synchronized long getPathRebuildCount() {
+        return pathRebuildCount;
+    }
+
+    /**
+     * 获取缓存命中率
+     *
+     * @param cache 缓存类型
+     * @return 命中率(0-1.0)，没有查询过时返回0
+     */
+    public static synchronized float getCacheHitRate(int cache) {
+        long total = cacheHits[cache] + cacheMisses[cache];
+        return total == 0 ? 0 : cacheHits[cache] * 1.0f / total;
+    }
+
+    /**
+     * 清空所有统计数据
+     */
+    public static synchronized void reset() {
+        for (int i = 0; i < STAGE_COUNT; i++) {
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+                stageHistograms[i][j] = 0;
+            }
+            stageTotalNanos[i] = 0;
+            stageCounts[i] = 0;
+        }
+        for (int i = 0; i < CACHE_COUNT; i++) {
+            cacheHits[i] = 0;
+            cacheMisses[i] = 0;
+        }
+        bitmapBytesAllocated = 0;
+        bitmapAllocationCount = 0;
+        pathRebuildCount = 0;
+    }
+
+    /**
+     * 获取阶段名称（与系统Trace中的名称一致）
+     *
+     * @param stage 阶段
+     * @return 阶段名称
+     */
+    public static String getStageName(int stage) {
+        return STAGE_NAMES[stage];
+    }
+
+    /**
+     * 阶段耗时监听
+     */
+    public interface Listener {
+        /**
+         * 一个阶段结束
+         *
+         * @param stage         阶段
+         * @param durationNanos 耗时（纳秒）
+         */
+        void onStageFinished(int stage, long durationNanos);
+    }
+}
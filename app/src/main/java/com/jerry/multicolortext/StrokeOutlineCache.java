@@ -0,0 +1,51 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Paint;
+import android.graphics.Path;
+
+/**
+ * 描边轮廓缓存
+ * 描边预先转换成可直接填充的轮廓，同一组（轮廓、描边宽度）只计算一次，进度和角度变化时直接复用
+ *
+ * @date 2026/10/19
+ */
+
+class StrokeOutlineCache {
+    private final Paint strokePaint;
+    private final Path strokePath = new Path();
+
+    private Path source;
+    private int sourceVersion;
+    private float width;
+    private boolean hasStroke;
+
+    StrokeOutlineCache() {
+        strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        strokePaint.setStyle(Paint.Style.STROKE);
+        strokePaint.setStrokeJoin(Paint.Join.ROUND);
+        strokePaint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+    /**
+     * 获取描边轮廓，只有轮廓或描边宽度变化时才重新计算
+     *
+     * @param source        被描边的轮廓
+     * @param sourceVersion 轮廓的版本号，轮廓内容变化时版本号随之变化
+     * @param width         描边宽度（以轮廓为中线）
+     * @return 描边的填充轮廓
+     */
+    Path obtain(Path source, int sourceVersion, float width) {
+        boolean hit = hasStroke && this.source == source && this.sourceVersion == sourceVersion && this.width == width;
+        RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_STROKE, hit);
+        if (!hit) {
+            this.source = source;
+            this.sourceVersion = sourceVersion;
+            this.width = width;
+            strokePath.reset();
+            strokePaint.setStrokeWidth(width);
+            strokePaint.getFillPath(source, strokePath);
+            hasStroke = true;
+        }
+        return strokePath;
+    }
+}
@@ -0,0 +1,387 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Matrix;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.util.LruCache;
+
+/**
+ * 由SVG Path数据解析出的形状
+ * 解析结果不可变，按Path数据在所有控件间共享缓存，每个字符串只解析一次
+ *
+ * @date 2026/10/19
+ */
+
+final class SvgPathShape {
+    /**
+     * 解析结果缓存
+     */
+    private static final LruCache<String, SvgPathShape> SHAPE_CACHE = new LruCache<>(32);
+
+    /**
+     * 原始坐标系下的形状
+     */
+    private final Path path;
+    /**
+     * 原始坐标系下的边界
+     */
+    private final RectF bounds;
+    /**
+     * 轮廓上的采样点（曲线已按固定段数展开），用于计算形状在任意方向上的投影范围
+     */
+    private final float[] outlinePoints;
+
+    private SvgPathShape(Path path, float[] outlinePoints) {
+        this.path = path;
+        this.outlinePoints = outlinePoints;
+        this.bounds = new RectF();
+        path.computeBounds(bounds, true);
+    }
+
+    /**
+     * 获取解析后的形状，相同的Path数据只解析一次
+     *
+     * @param pathData SVG Path数据（即path元素的d属性）
+     * @return 形状
+     * @throws IllegalArgumentException Path数据格式错误
+     */
+    static SvgPathShape obtain(String pathData) {
+        SvgPathShape shape = SHAPE_CACHE.get(pathData);
+        RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_SHAPE_PATH, shape != null);
+        if (shape == null) {
+            Parser parser = new Parser(pathData);
+            parser.parse();
+            shape = new SvgPathShape(parser.path, parser.getPoints());
+            SHAPE_CACHE.put(pathData, shape);
+        }
+        return shape;
+    }
+
+    /**
+     * 计算把形状等比缩放并居中到目标区域的变换
+     *
+     * @param dst    目标区域
+     * @param matrix 输出的变换
+     */
+    void getFitMatrix(RectF dst, Matrix matrix) {
+        matrix.setRectToRect(bounds, dst, Matrix.ScaleToFit.CENTER);
+    }
+
+    /**
+     * 将形状变换到目标Path
+     *
+     * @param matrix 变换
+     * @param dst    目标Path
+     */
+    void transform(Matrix matrix, Path dst) {
+        path.transform(matrix, dst);
+    }
+
+    /**
+     * 将轮廓采样点变换到目标数组
+     *
+     * @param matrix 变换
+     * @param dst    目标数组，长度不足时会重新创建
+     * @return 变换后的采样点
+     */
+    float[] transformOutlinePoints(Matrix matrix, float[] dst) {
+        if (dst == null || dst.length != outlinePoints.length) {
+            dst = new float[outlinePoints.length];
+        }
+        System.arraycopy(outlinePoints, 0, dst, 0, outlinePoints.length);
+        matrix.mapPoints(dst);
+        return dst;
+    }
+
+    /**
+     * SVG Path数据解析器，支持M、L、H、V、C、S、Q、T、A、Z及其相对坐标形式
+     */
+    static final class Parser {
+        /**
+         * 每段曲线展开的采样点数
+         */
+        private static final int CURVE_SAMPLE_COUNT = 8;
+
+        private final String data;
+        private int index;
+
+        private final Path path = new Path();
+        private float[] points = new float[64];
+        private int pointCount;
+
+        private float currentX, currentY;
+        private float startX, startY;
+        private float controlX, controlY;
+        private char previousCommand;
+
+        Parser(String data) {
+            this.data = data == null ? "" : data;
+        }
+
+        void parse() {
+            skipSeparators();
+            while (index < data.length()) {
+                char command = data.charAt(index);
+                if (!Character.isLetter(command)) {
+                    throw new IllegalArgumentException("Expected a command at " + index + " in path data: " + data);
+                }
+                index++;
+                do {
+                    execute(command);
+                    previousCommand = Character.toUpperCase(command);
+                    // moveto之后的坐标按lineto处理
+                    if (command == 'M') {
+                        command = 'L';
+                    } else if (command == 'm') {
+                        command = 'l';
+                    }
+                    skipSeparators();
+                } while (command != 'Z' && command != 'z' && index < data.length() && isNumberStart(data.charAt(index)));
+            }
+            if (pointCount == 0) {
+                throw new IllegalArgumentException("Empty path data: " + data);
+            }
+        }
+
+        private void execute(char command) {
+            final boolean relative = Character.isLowerCase(command);
+            final float offsetX = relative ? currentX : 0, offsetY = relative ? currentY : 0;
+            switch (Character.toUpperCase(command)) {
+                case 'M': {
+                    currentX = startX = nextFloat() + offsetX;
+                    currentY = startY = nextFloat() + offsetY;
+                    path.moveTo(currentX, currentY);
+                    addPoint(currentX, currentY);
+                    break;
+                }
+                case 'L': {
+                    lineTo(nextFloat() + offsetX, nextFloat() + offsetY);
+                    break;
+                }
+                case 'H': {
+                    lineTo(nextFloat() + offsetX, currentY);
+                    break;
+                }
+                case 'V': {
+                    lineTo(currentX, nextFloat() + offsetY);
+                    break;
+                }
+                case 'C': {
+                    float x1 = nextFloat() + offsetX, y1 = nextFloat() + offsetY;
+                    float x2 = nextFloat() + offsetX, y2 = nextFloat() + offsetY;
+                    cubicTo(x1, y1, x2, y2, nextFloat() + offsetX, nextFloat() + offsetY);
+                    break;
+                }
+                case 'S': {
+                    boolean reflect = previousCommand == 'C' || previousCommand == 'S';
+                    float x1 = reflect ? 2 * currentX - controlX : currentX, y1 = reflect ? 2 * currentY - controlY : currentY;
+                    float x2 = nextFloat() + offsetX, y2 = nextFloat() + offsetY;
+                    cubicTo(x1, y1, x2, y2, nextFloat() + offsetX, nextFloat() + offsetY);
+                    break;
+                }
+                case 'Q': {
+                    float x1 = nextFloat() + offsetX, y1 = nextFloat() + offsetY;
+                    quadTo(x1, y1, nextFloat() + offsetX, nextFloat() + offsetY);
+                    break;
+                }
+                case 'T': {
+                    boolean reflect = previousCommand == 'Q' || previousCommand == 'T';
+                    float x1 = reflect ? 2 * currentX - controlX : currentX, y1 = reflect ? 2 * currentY - controlY : currentY;
+                    quadTo(x1, y1, nextFloat() + offsetX, nextFloat() + offsetY);
+                    break;
+                }
+                case 'A': {
+                    float radiusX = nextFloat(), radiusY = nextFloat(), rotation = nextFloat();
+                    boolean largeArc = nextFlag(), sweep = nextFlag();
+                    arcTo(radiusX, radiusY, rotation, largeArc, sweep, nextFloat() + offsetX, nextFloat() + offsetY);
+                    break;
+                }
+                case 'Z': {
+                    path.close();
+                    currentX = startX;
+                    currentY = startY;
+                    break;
+                }
+                default: {
+                    throw new IllegalArgumentException("Unsupported command '" + command + "' in path data: " + data);
+                }
+            }
+        }
+
+        private void lineTo(float x, float y) {
+            path.lineTo(x, y);
+            currentX = x;
+            currentY = y;
+            addPoint(x, y);
+        }
+
+        private void quadTo(float x1, float y1, float x, float y) {
+            path.quadTo(x1, y1, x, y);
+            for (int i = 1; i <= CURVE_SAMPLE_COUNT; i++) {
+                float t = i * 1.0f / CURVE_SAMPLE_COUNT, u = 1 - t;
+                addPoint(u * u * currentX + 2 * u * t * x1 + t * t * x, u * u * currentY + 2 * u * t * y1 + t * t * y);
+            }
+            controlX = x1;
+            controlY = y1;
+            currentX = x;
+            currentY = y;
+        }
+
+        private void cubicTo(float x1, float y1, float x2, float y2, float x, float y) {
+            path.cubicTo(x1, y1, x2, y2, x, y);
+            for (int i = 1; i <= CURVE_SAMPLE_COUNT; i++) {
+                float t = i * 1.0f / CURVE_SAMPLE_COUNT, u = 1 - t;
+                addPoint(u * u * u * currentX + 3 * u * u * t * x1 + 3 * u * t * t * x2 + t * t * t * x,
+                        u * u * u * currentY + 3 * u * u * t * y1 + 3 * u * t * t * y2 + t * t * t * y);
+            }
+            controlX = x2;
+            controlY = y2;
+            currentX = x;
+            currentY = y;
+        }
+
+        /**
+         * 椭圆弧，按SVG规范转换为圆心参数后拆成不超过90度的三次贝塞尔曲线
+         */
+        private void arcTo(float radiusX, float radiusY, float rotation, boolean largeArc, boolean sweep, float x, float y) {
+            if (radiusX == 0 || radiusY == 0 || (x == currentX && y == currentY)) {
+                lineTo(x, y);
+                return;
+            }
+            double rx = Math.abs(radiusX), ry = Math.abs(radiusY);
+            final double phi = Math.toRadians(rotation);
+            final double cosPhi = Math.cos(phi), sinPhi = Math.sin(phi);
+            final double halfDx = (currentX - x) / 2.0, halfDy = (currentY - y) / 2.0;
+            final double x1p = cosPhi * halfDx + sinPhi * halfDy;
+            final double y1p = -sinPhi * halfDx + cosPhi * halfDy;
+
+            // 半径不足时等比放大
+            double lambda = x1p * x1p / (rx * rx) + y1p * y1p / (ry * ry);
+            if (lambda > 1) {
+                rx *= Math.sqrt(lambda);
+                ry *= Math.sqrt(lambda);
+            }
+            double numerator = rx * rx * ry * ry - rx * rx * y1p * y1p - ry * ry * x1p * x1p;
+            double denominator = rx * rx * y1p * y1p + ry * ry * x1p * x1p;
+            double coefficient = (largeArc == sweep ? -1 : 1) * Math.sqrt(Math.max(0, numerator / denominator));
+            final double cxp = coefficient * rx * y1p / ry;
+            final double cyp = -coefficient * ry * x1p / rx;
+            final double cx = cosPhi * cxp - sinPhi * cyp + (currentX + x) / 2.0;
+            final double cy = sinPhi * cxp + cosPhi * cyp + (currentY + y) / 2.0;
+
+            double startAngle = vectorAngle(1, 0, (x1p - cxp) / rx, (y1p - cyp) / ry);
+            double sweepAngle = vectorAngle((x1p - cxp) / rx, (y1p - cyp) / ry, (-x1p - cxp) / rx, (-y1p - cyp) / ry);
+            if (!sweep && sweepAngle > 0) {
+                sweepAngle -= 2 * Math.PI;
+            } else if (sweep && sweepAngle < 0) {
+                sweepAngle += 2 * Math.PI;
+            }
+
+            int segmentCount = Math.max(1, (int) Math.ceil(Math.abs(sweepAngle) / (Math.PI / 2)));
+            double delta = sweepAngle / segmentCount;
+            double handle = 4.0 / 3.0 * Math.tan(delta / 4);
+            for (int i = 0; i < segmentCount; i++) {
+                double angle1 = startAngle + i * delta, angle2 = angle1 + delta;
+                double cos1 = Math.cos(angle1), sin1 = Math.sin(angle1), cos2 = Math.cos(angle2), sin2 = Math.sin(angle2);
+                double x2 = cx + rx * cos2 * cosPhi - ry * sin2 * sinPhi;
+                double y2 = cy + rx * cos2 * sinPhi + ry * sin2 * cosPhi;
+                double control1X = currentX + handle * (-rx * sin1 * cosPhi - ry * cos1 * sinPhi);
+                double control1Y = currentY + handle * (-rx * sin1 * sinPhi + ry * cos1 * cosPhi);
+                double control2X = x2 - handle * (-rx * sin2 * cosPhi - ry * cos2 * sinPhi);
+                double control2Y = y2 - handle * (-rx * sin2 * sinPhi + ry * cos2 * cosPhi);
+                if (i == segmentCount - 1) {
+                    // 最后一段的终点取精确值，避免误差累积
+                    x2 = x;
+                    y2 = y;
+                }
+                cubicTo((float) control1X, (float) control1Y, (float) control2X, (float) control2Y, (float) x2, (float) y2);
+            }
+        }
+
+        private static double vectorAngle(double ux, double uy, double vx, double vy) {
+            return Math.atan2(ux * vy - uy * vx, ux * vx + uy * vy);
+        }
+
+        private void addPoint(float x, float y) {
+            if (pointCount * 2 + 2 > points.length) {
+                float[] newPoints = new float[points.length * 2];
+                System.arraycopy(points, 0, newPoints, 0, points.length);
+                points = newPoints;
+            }
+            points[pointCount * 2] = x;
+            points[pointCount * 2 + 1] = y;
+            pointCount++;
+        }
+
+        float[] getPoints() {
+            float[] result = new float[pointCount * 2];
+            System.arraycopy(points, 0, result, 0, result.length);
+            return result;
+        }
+
+        private void skipSeparators() {
+            while (index < data.length()) {
+                char c = data.charAt(index);
+                if (c != ',' && !Character.isWhitespace(c)) {
+                    break;
+                }
+                index++;
+            }
+        }
+
+        private static boolean isNumberStart(char c) {
+            return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+        }
+
+        /**
+         * 弧线的标志位可以不用分隔符连写（例如"a1 1 0 00 1 1"），所以单独按一个字符读取
+         */
+        private boolean nextFlag() {
+            skipSeparators();
+            if (index >= data.length() || (data.charAt(index) != '0' && data.charAt(index) != '1')) {
+                throw new IllegalArgumentException("Expected an arc flag at " + index + " in path data: " + data);
+            }
+            return data.charAt(index++) == '1';
+        }
+
+        private float nextFloat() {
+            skipSeparators();
+            final int start = index;
+            final int length = data.length();
+            if (index < length && (data.charAt(index) == '-' || data.charAt(index) == '+')) {
+                index++;
+            }
+            boolean hasDot = false, hasDigit = false;
+            while (index < length) {
+                char c = data.charAt(index);
+                if (c >= '0' && c <= '9') {
+                    hasDigit = true;
+                } else if (c == '.' && !hasDot) {
+                    hasDot = true;
+                } else {
+                    break;
+                }
+                index++;
+            }
+            if (hasDigit && index < length && (data.charAt(index) == 'e' || data.charAt(index) == 'E')) {
+                int exponentStart = index;
+                index++;
+                if (index < length && (data.charAt(index) == '-' || data.charAt(index) == '+')) {
+                    index++;
+                }
+                int digitStart = index;
+                while (index < length && data.charAt(index) >= '0' && data.charAt(index) <= '9') {
+                    index++;
+                }
+                if (index == digitStart) {
+                    // 不是指数部分，回退
+                    index = exponentStart;
+                }
+            }
+            if (!hasDigit) {
+                throw new IllegalArgumentException("Expected a number at " + start + " in path data: " + data);
+            }
+            return Float.parseFloat(data.substring(start, index));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Path;
+
+/**
+ * 扇形（时钟指针）分割线
+ * 弧线顶点只在控件尺寸或起始角度变化时重新计算，进度增加时只在原有填充区域后追加顶点
+ *
+ * @date 2026/10/19
+ */
+
+class SweepDivider {
+    /**
+     * 每段弧线对应的角度
+     */
+    private static final int SEGMENT_ANGLE = 45;
+    /**
+     * 整圆的弧线段数
+     */
+    private static final int SEGMENT_COUNT = 360 / SEGMENT_ANGLE;
+
+    private int width, height;
+    private float startAngle;
+    private boolean hasVertices;
+
+    private float centerX, centerY;
+    /**
+     * 弧线所在圆的半径，取外切多边形的半径以保证多边形的边始终在控件外
+     */
+    private float radius;
+    /**
+     * 从起始角度开始每隔{@link SweepDivider#SEGMENT_ANGLE}度的弧线顶点
+     */
+    private final float[] vertices = new float[(SEGMENT_COUNT + 1) * 2];
+    /**
+     * 填充区域中已经写入的完整弧线段数，小于0时需要重建填充区域
+     */
+    private int builtSegmentCount = -1;
+
+    /**
+     * 更新弧线参数，只有参数变化时才重新计算顶点
+     *
+     * @param width      控件宽度
+     * @param height     控件高度
+     * @param startAngle 起始角度（0度为3点钟方向，顺时针）
+     * @return 是否重新计算了顶点
+     */
+    boolean update(int width, int height, float startAngle) {
+        if (hasVertices && this.width == width && this.height == height && this.startAngle == startAngle) {
+            return false;
+        }
+        this.width = width;
+        this.height = height;
+        this.startAngle = startAngle;
+
+        centerX = width / 2.0f;
+        centerY = height / 2.0f;
+        radius = (float) (Math.sqrt(width * width + height * height) / 2 / Math.cos(Math.PI / SEGMENT_COUNT));
+        for (int i = 0; i <= SEGMENT_COUNT; i++) {
+            double radians = Math.toRadians(startAngle + i * SEGMENT_ANGLE);
+            vertices[i * 2] = centerX + (float) (radius * Math.cos(radians));
+            vertices[i * 2 + 1] = centerY + (float) (radius * Math.sin(radians));
+        }
+        hasVertices = true;
+        builtSegmentCount = -1;
+        return true;
+    }
+
+    /**
+     * 填充区域被其他分割线改写后需要调用，下次生成时重建
+     */
+    void invalidate() {
+        builtSegmentCount = -1;
+    }
+
+    /**
+     * 生成填充和非填充区域
+     * 填充区域按顺序为：圆心、起始顶点、已扫过的弧线顶点、指针终点，其中最后一个点始终是指针终点
+     *
+     * @param progress     填充进度(0-1.0)
+     * @param filledPath   填充区域
+     * @param unfilledPath 非填充区域（取填充区域的反向填充）
+     * @return 是否重建了填充区域（否则只追加了新扫过的顶点）
+     */
+    boolean generate(float progress, Path filledPath, Path unfilledPath) {
+        progress = Math.max(0, Math.min(1, progress));
+        final float sweepAngle = progress * 360;
+        final int segment = Math.min((int) (sweepAngle / SEGMENT_ANGLE), SEGMENT_COUNT);
+        final double radians = Math.toRadians(startAngle + sweepAngle);
+        final float endX = centerX + (float) (radius * Math.cos(radians));
+        final float endY = centerY + (float) (radius * Math.sin(radians));
+
+        boolean rebuild = builtSegmentCount < 0 || segment < builtSegmentCount;
+        RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_SWEEP, !rebuild);
+        if (rebuild) {
+            // 进度回退时无法删除顶点，只能重建
+            RenderMetrics.recordPathRebuild();
+            filledPath.rewind();
+            filledPath.setFillType(Path.FillType.WINDING);
+            filledPath.moveTo(centerX, centerY);
+            filledPath.lineTo(vertices[0], vertices[1]);
+            filledPath.lineTo(endX, endY);
+            builtSegmentCount = 0;
+        }
+        // 进度前进时把原来的终点替换成新扫过的顶点
+        for (int i = builtSegmentCount + 1; i <= segment; i++) {
+            filledPath.setLastPoint(vertices[i * 2], vertices[i * 2 + 1]);
+            filledPath.lineTo(endX, endY);
+        }
+        builtSegmentCount = segment;
+        filledPath.setLastPoint(endX, endY);
+
+        unfilledPath.set(filledPath);
+        unfilledPath.setFillType(Path.FillType.INVERSE_WINDING);
+        return rebuild;
+    }
+}
@@ -0,0 +1,218 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+/**
+ * 自动字号
+ * 在最小和最大字号之间二分查找能放进形状内的最大字号，
+ * 结果按（文字、控件尺寸、Padding、形状、字体、最大行数、对齐方式、字号范围）在所有控件间共享缓存，
+ * 进度、角度和颜色变化都不会重新计算
+ *
+ * @date 2026/10/19
+ */
+
+final class TextAutoSizer {
+    /**
+     * 计算结果缓存
+     */
+    private static final LruCache<Key, Integer> SIZE_CACHE = new LruCache<>(64);
+    /**
+     * 圆角半径与控件短边的比例，与测量时一致
+     */
+    private static final float ROUND_CORNER_RATIO = 1 / 5.0f;
+
+    private TextAutoSizer() {
+    }
+
+    /**
+     * 获取能放进形状内的最大字号
+     *
+     * @param paint       绘制文字的画笔（只读取字体等属性，不会被修改）
+     * @param text        文字内容
+     * @param width       控件宽度
+     * @param height      控件高度
+     * @param padding     左、上、右、下Padding
+     * @param shapeType   形状
+     * @param maxLines    最大行数，大于1时按多行排版
+     * @param alignment   多行文字的对齐方式
+     * @param minTextSize 最小字号
+     * @param maxTextSize 最大字号
+     * @return 字号，最小字号也放不下时返回最小字号
+     */
+    static int obtain(TextPaint paint, String text, int width, int height, int[] padding,
+                      int shapeType, int maxLines, Layout.Alignment alignment, int minTextSize, int maxTextSize) {
+        Key key = new Key(text, width, height, padding, shapeType, paint.getTypeface(), maxLines, alignment, minTextSize, maxTextSize);
+        Integer textSize = SIZE_CACHE.get(key);
+        RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_AUTO_SIZE, textSize != null);
+        if (textSize == null) {
+            final TextPaint searchPaint = new TextPaint(paint);
+            final Key searchKey = key;
+            final Rect bounds = new Rect();
+            textSize = search(key.minTextSize, key.maxTextSize, new Tester() {
+                @Override
+                public boolean fits(int textSize) {
+                    searchPaint.setTextSize(textSize);
+                    return TextAutoSizer.fits(searchPaint, searchKey, bounds);
+                }
+            });
+            SIZE_CACHE.put(key, textSize);
+        }
+        return textSize;
+    }
+
+    /**
+     * 二分查找能放下的最大字号（字号越大越放不下）
+     *
+     * @param minTextSize 最小字号
+     * @param maxTextSize 最大字号
+     * @param tester      判断字号是否能放下
+     * @return 字号，最小字号也放不下时返回最小字号
+     */
+    static int search(int minTextSize, int maxTextSize, Tester tester) {
+        int low = minTextSize, high = maxTextSize, result = minTextSize;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (tester.fits(middle)) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 判断当前字号的文字是否能放进形状内，判断方式与包裹内容时的测量方式互逆
+     * 圆形：文字（含Padding）的对角线不超过直径，即文字在内切圆中
+     * 圆角矩形：文字（含Padding）的宽高加上圆角半径不超过控件宽高，即文字避开四个圆角
+     * 其他形状：文字（含Padding）不超过控件宽高
+     */
+    private static boolean fits(TextPaint paint, Key key, Rect bounds) {
+        final int horizontalPadding = key.paddingLeft + key.paddingRight, verticalPadding = key.paddingTop + key.paddingBottom;
+        final float cornerRadius = key.shapeType == MultiColorTextView.SHAPE_TYPE_ROUND_RECT
+                ? Math.min(key.width, key.height) * ROUND_CORNER_RATIO : 0;
+
+        int textWidth, textHeight;
+        if (key.maxLines > 1) {
+            // 排版宽度和对齐方式与测量时一致，否则换行结果会不同
+            int layoutWidth = TextLayoutCache.getLayoutWidth(paint, key.text, key.width - horizontalPadding);
+            if (layoutWidth <= 0) {
+                return false;
+            }
+            StaticLayout layout = TextLayoutCache.buildLayout(paint, key.text, layoutWidth, key.maxLines, key.alignment);
+            int lastLine = layout.getLineCount() - 1;
+            // 超出最大行数被省略或截断时视为放不下
+            if (layout.getEllipsisCount(lastLine) > 0 || layout.getText().length() < key.text.length()) {
+                return false;
+            }
+            float maxLineWidth = 0;
+            for (int i = 0; i <= lastLine; i++) {
+                maxLineWidth = Math.max(maxLineWidth, layout.getLineWidth(i));
+            }
+            textWidth = (int) Math.ceil(maxLineWidth);
+            textHeight = layout.getHeight();
+        } else {
+            paint.getTextBounds(key.text, 0, key.text.length(), bounds);
+            textWidth = bounds.width();
+            textHeight = bounds.height();
+        }
+
+        final int realWidth = textWidth + horizontalPadding, realHeight = textHeight + verticalPadding;
+        switch (key.shapeType) {
+            case MultiColorTextView.SHAPE_TYPE_CIRCLE: {
+                int diameter = Math.min(key.width, key.height);
+                return (long) realWidth * realWidth + (long) realHeight * realHeight <= (long) diameter * diameter;
+            }
+            case MultiColorTextView.SHAPE_TYPE_ROUND_RECT: {
+                return realWidth + cornerRadius <= key.width && realHeight + cornerRadius <= key.height;
+            }
+            default: {
+                return realWidth <= key.width && realHeight <= key.height;
+            }
+        }
+    }
+
+    /**
+     * 判断字号是否能放下
+     */
+    interface Tester {
+        /**
+         * @param textSize 字号
+         * @return 是否能放下
+         */
+        boolean fits(int textSize);
+    }
+
+    /**
+     * 缓存的键
+     */
+    static final class Key {
+        private final String text;
+        private final int width, height;
+        private final int paddingLeft, paddingTop, paddingRight, paddingBottom;
+        private final int shapeType;
+        private final Typeface typeface;
+        private final int maxLines;
+        private final Layout.Alignment alignment;
+        private final int minTextSize, maxTextSize;
+
+        Key(String text, int width, int height, int[] padding, int shapeType, Typeface typeface,
+                    int maxLines, Layout.Alignment alignment, int minTextSize, int maxTextSize) {
+            this.text = text == null ? "" : text;
+            this.width = width;
+            this.height = height;
+            this.paddingLeft = padding[0];
+            this.paddingTop = padding[1];
+            this.paddingRight = padding[2];
+            this.paddingBottom = padding[3];
+            this.shapeType = shapeType;
+            this.typeface = typeface;
+            this.maxLines = maxLines;
+            this.alignment = alignment;
+            this.minTextSize = minTextSize;
+            this.maxTextSize = maxTextSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return width == key.width && height == key.height
+                    && paddingLeft == key.paddingLeft && paddingTop == key.paddingTop
+                    && paddingRight == key.paddingRight && paddingBottom == key.paddingBottom
+                    && shapeType == key.shapeType && typeface == key.typeface && maxLines == key.maxLines
+                    && alignment == key.alignment
+                    && minTextSize == key.minTextSize && maxTextSize == key.maxTextSize
+                    && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text.hashCode();
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + paddingLeft;
+            result = 31 * result + paddingTop;
+            result = 31 * result + paddingRight;
+            result = 31 * result + paddingBottom;
+            result = 31 * result + shapeType;
+            result = 31 * result + System.identityHashCode(typeface);
+            result = 31 * result + maxLines;
+            result = 31 * result + (alignment != null ? alignment.hashCode() : 0);
+            result = 31 * result + minTextSize;
+            result = 31 * result + maxTextSize;
+            return result;
+        }
+    }
+}
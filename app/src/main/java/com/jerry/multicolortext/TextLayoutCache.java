@@ -0,0 +1,180 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Typeface;
+import android.os.Build;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+/**
+ * 多行文字排版缓存
+ * 同一组（文字、宽度、字号、字体、最大行数、对齐方式）只排版一次，测量和绘制共用同一个排版结果，
+ * 不换行时所需的宽度按（文字、字号、字体）缓存，重新布局时不会再测量整段文字
+ *
+ * @date 2026/10/19
+ */
+
+class TextLayoutCache {
+    private String text;
+    private int width;
+    private float textSize;
+    private Typeface typeface;
+    private int maxLines;
+    private Layout.Alignment alignment;
+
+    private StaticLayout layout;
+    /**
+     * 所有行中最宽一行的宽度
+     */
+    private int blockWidth;
+
+    /**
+     * 计算不换行宽度时的参数，参数不变时不重新测量
+     */
+    private String desiredWidthText;
+    private float desiredWidthTextSize;
+    private Typeface desiredWidthTypeface;
+    /**
+     * 不换行时文字所需的宽度，小于0表示还没有测量过
+     */
+    private int desiredWidth = -1;
+
+    /**
+     * 获取排版结果，只有参数变化时才重新排版
+     *
+     * @param paint     绘制文字的画笔
+     * @param text      文字内容
+     * @param width     排版宽度
+     * @param maxLines  最大行数
+     * @param alignment 对齐方式
+     * @return 排版结果
+     */
+    StaticLayout obtain(TextPaint paint, String text, int width, int maxLines, Layout.Alignment alignment) {
+        if (text == null) {
+            text = "";
+        }
+        width = Math.max(width, 1);
+        if (layout != null && text.equals(this.text) && this.width == width
+                && textSize == paint.getTextSize() && typeface == paint.getTypeface()
+                && this.maxLines == maxLines && this.alignment == alignment) {
+            RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_TEXT_LAYOUT, true);
+            return layout;
+        }
+        RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_TEXT_LAYOUT, false);
+        this.text = text;
+        this.width = width;
+        this.textSize = paint.getTextSize();
+        this.typeface = paint.getTypeface();
+        this.maxLines = maxLines;
+        this.alignment = alignment;
+
+        layout = buildLayout(paint, text, width, maxLines, alignment);
+        float maxLineWidth = 0;
+        for (int i = 0, count = layout.getLineCount(); i < count; i++) {
+            maxLineWidth = Math.max(maxLineWidth, layout.getLineWidth(i));
+        }
+        blockWidth = (int) Math.ceil(maxLineWidth);
+        return layout;
+    }
+
+    /**
+     * 获取排版宽度，不换行时所需的宽度只有文字、字号或字体变化时才重新测量
+     *
+     * @param paint          绘制文字的画笔
+     * @param text           文字内容
+     * @param availableWidth 去除Padding后可用的宽度，不限制时传{@link Integer#MAX_VALUE}
+     * @return 排版宽度
+     */
+    int obtainLayoutWidth(TextPaint paint, String text, int availableWidth) {
+        if (text == null) {
+            text = "";
+        }
+        if (desiredWidth >= 0 && text.equals(desiredWidthText)
+                && desiredWidthTextSize == paint.getTextSize() && desiredWidthTypeface == paint.getTypeface()) {
+            RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_TEXT_LAYOUT, true);
+        } else {
+            RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_TEXT_LAYOUT, false);
+            desiredWidthText = text;
+            desiredWidthTextSize = paint.getTextSize();
+            desiredWidthTypeface = paint.getTypeface();
+            desiredWidth = getDesiredWidth(paint, text);
+        }
+        return Math.min(desiredWidth, availableWidth);
+    }
+
+    /**
+     * 计算排版宽度：不换行时文字所需的宽度，但不超过可用宽度
+     * 测量和自动字号共用，保证两者的换行结果一致（自动字号每个字号只计算一次，不需要缓存）
+     *
+     * @param paint          绘制文字的画笔
+     * @param text           文字内容
+     * @param availableWidth 去除Padding后可用的宽度，不限制时传{@link Integer#MAX_VALUE}
+     * @return 排版宽度
+     */
+    static int getLayoutWidth(TextPaint paint, String text, int availableWidth) {
+        return Math.min(getDesiredWidth(paint, text == null ? "" : text), availableWidth);
+    }
+
+    private static int getDesiredWidth(TextPaint paint, String text) {
+        return (int) Math.ceil(Layout.getDesiredWidth(text, paint));
+    }
+
+    /**
+     * 排版文字，超过最大行数时末尾省略（低版本截断）
+     *
+     * @param paint     绘制文字的画笔
+     * @param text      文字内容
+     * @param width     排版宽度
+     * @param maxLines  最大行数
+     * @param alignment 对齐方式
+     * @return 排版结果
+     */
+    @SuppressWarnings("deprecation")
+    static StaticLayout buildLayout(TextPaint paint, String text, int width, int maxLines, Layout.Alignment alignment) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return StaticLayout.Builder.obtain(text, 0, text.length(), paint, width)
+                    .setAlignment(alignment)
+                    .setIncludePad(false)
+                    .setMaxLines(maxLines)
+                    .setEllipsize(TextUtils.TruncateAt.END)
+                    .build();
+        }
+        // 低版本不支持限制行数，超出时截断到最后一行的末尾再排版一次
+        StaticLayout layout = new StaticLayout(text, paint, width, alignment, 1, 0, false);
+        if (layout.getLineCount() > maxLines) {
+            layout = new StaticLayout(truncate(text, layout.getLineEnd(maxLines - 1)), paint, width, alignment, 1, 0, false);
+        }
+        return layout;
+    }
+
+    /**
+     * 截断到最后一行的末尾，并去掉行尾的空白（否则截断后的文字可能多出一个只有空白的行）
+     * 行首的空白会影响第一行的排版，所以保留
+     *
+     * @param text    文字内容
+     * @param lineEnd 最后一行的结束位置
+     * @return 截断后的文字
+     */
+    static String truncate(String text, int lineEnd) {
+        int end = Math.min(lineEnd, text.length());
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * @return 上一次获取的排版结果
+     */
+    StaticLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return 所有行中最宽一行的宽度
+     */
+    int getBlockWidth() {
+        return blockWidth;
+    }
+}
@@ -0,0 +1,123 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.TextUtils;
+
+/**
+ * 文字轮廓缓存
+ * 同一组（文字、字号、字体、排版）只提取一次轮廓，位置变化时只做平移
+ *
+ * @date 2026/10/19
+ */
+
+class TextOutlineCache {
+    /**
+     * 排版时末尾省略使用的省略号
+     */
+    private static final String ELLIPSIS = "\u2026";
+
+    private String text;
+    private float textSize;
+    private Typeface typeface;
+    private Layout layout;
+    private boolean hasOutline;
+
+    /**
+     * 以文字起点为原点的轮廓
+     */
+    private final Path outlinePath = new Path();
+    /**
+     * 平移到控件中实际位置的轮廓
+     */
+    private final Path positionedPath = new Path();
+    private float offsetX, offsetY;
+    private boolean positioned;
+    /**
+     * 轮廓的版本号，每次轮廓或位置变化时加1
+     */
+    private int version;
+    /**
+     * 提取单行轮廓用的临时Path
+     */
+    private final Path linePath = new Path();
+
+    /**
+     * 获取文字轮廓，只有文字、字号、字体或排版变化时才重新提取
+     *
+     * @param paint   绘制文字的画笔
+     * @param text    文字内容
+     * @param layout  多行排版结果，单行时为null
+     * @param offsetX 单行时为文字基线起点X坐标，多行时为排版区域左边界
+     * @param offsetY 单行时为文字基线Y坐标，多行时为排版区域上边界
+     * @return 控件坐标系下的文字轮廓
+     */
+    Path obtain(Paint paint, String text, Layout layout, float offsetX, float offsetY) {
+        boolean hit = hasOutline && (text == null ? this.text == null : text.equals(this.text)) && textSize == paint.getTextSize()
+                && typeface == paint.getTypeface() && this.layout == layout;
+        RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_TEXT_OUTLINE, hit);
+        if (!hit) {
+            this.text = text;
+            this.textSize = paint.getTextSize();
+            this.typeface = paint.getTypeface();
+            this.layout = layout;
+            extractOutline(paint, text, layout);
+            hasOutline = true;
+            positioned = false;
+        }
+        if (!positioned || this.offsetX != offsetX || this.offsetY != offsetY) {
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            outlinePath.offset(offsetX, offsetY, positionedPath);
+            positioned = true;
+            version++;
+        }
+        return positionedPath;
+    }
+
+    /**
+     * @return 上一次获取的轮廓的版本号
+     */
+    int getVersion() {
+        return version;
+    }
+
+    private void extractOutline(Paint paint, String text, Layout layout) {
+        outlinePath.reset();
+        if (TextUtils.isEmpty(text)) {
+            return;
+        }
+        if (layout == null) {
+            paint.getTextPath(text, 0, text.length(), 0, 0, outlinePath);
+            return;
+        }
+        String layoutText = layout.getText().toString();
+        for (int i = 0, count = layout.getLineCount(); i < count; i++) {
+            linePath.reset();
+            final int lineStart = layout.getLineStart(i);
+            if (layout.getEllipsisCount(i) > 0) {
+                // 被省略的行按实际显示的内容提取，否则裁剪轮廓中会缺少省略号
+                String lineText = getEllipsizedLineText(layoutText, lineStart, layout.getEllipsisStart(i));
+                paint.getTextPath(lineText, 0, lineText.length(), layout.getLineLeft(i), layout.getLineBaseline(i), linePath);
+            } else {
+                paint.getTextPath(layoutText, lineStart, layout.getLineVisibleEnd(i), layout.getLineLeft(i), layout.getLineBaseline(i), linePath);
+            }
+            outlinePath.addPath(linePath);
+        }
+    }
+
+    /**
+     * 获取被省略的行实际显示的内容：保留的文字加省略号
+     *
+     * @param layoutText    排版的文字
+     * @param lineStart     行的起始位置
+     * @param ellipsisStart 省略开始的位置（相对行首）
+     * @return 实际显示的内容
+     */
+    static String getEllipsizedLineText(String layoutText, int lineStart, int ellipsisStart) {
+        int end = Math.max(lineStart, Math.min(lineStart + ellipsisStart, layoutText.length()));
+        return layoutText.substring(lineStart, end) + ELLIPSIS;
+    }
+}
@@ -0,0 +1,119 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Matrix;
+import android.graphics.Path;
+
+/**
+ * 水波纹分割线
+ * 波形顶点只在控件尺寸、波长或振幅变化时重新计算，每帧只根据相位做平移和旋转
+ *
+ * @date 2026/10/19
+ */
+
+class WaveDivider {
+    /**
+     * 每个波长的采样段数
+     */
+    private static final int SEGMENTS_PER_WAVE = 24;
+
+    private int width, height;
+    private float waveLength, amplitude;
+
+    /**
+     * 局部坐标系下的波形顶点（x轴沿分割线方向，y轴沿填充推进方向）
+     */
+    private float[] vertices;
+    /**
+     * 局部坐标系下波形两侧的闭合区域（y小于0的一侧为填充区域）
+     */
+    private final Path localFilledPath = new Path(), localUnfilledPath = new Path();
+    /**
+     * 局部坐标系到控件坐标系的变换
+     */
+    private final Matrix matrix = new Matrix();
+
+    /**
+     * 更新波形参数，只有参数变化时才重新计算顶点
+     *
+     * @param width      控件宽度
+     * @param height     控件高度
+     * @param waveLength 波长
+     * @param amplitude  振幅
+     * @return 是否重新计算了顶点
+     */
+    boolean update(int width, int height, float waveLength, float amplitude) {
+        // 缓存中保存的是限制后的波长，比较前同样需要限制
+        waveLength = Math.max(waveLength, 1);
+        if (vertices != null && this.width == width && this.height == height
+                && this.waveLength == waveLength && this.amplitude == amplitude) {
+            RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_WAVE, true);
+            return false;
+        }
+        RenderMetrics.recordCacheLookup(RenderMetrics.CACHE_WAVE, false);
+        this.width = width;
+        this.height = height;
+        this.waveLength = waveLength;
+        this.amplitude = amplitude;
+
+        tessellate();
+        return true;
+    }
+
+    /**
+     * 计算波形顶点和两侧的闭合区域
+     */
+    private void tessellate() {
+        RenderMetrics.recordPathRebuild();
+        final float diagonal = (float) Math.sqrt(width * width + height * height);
+        // 波形需要覆盖整个控件，并额外多出一个波长以便按相位平移
+        final int halfWaveCount = (int) Math.ceil(diagonal / 2 / waveLength) + 1;
+        final float startX = -(halfWaveCount + 1) * waveLength;
+        final int segmentCount = (halfWaveCount * 2 + 1) * SEGMENTS_PER_WAVE;
+        final float segmentLength = waveLength / SEGMENTS_PER_WAVE;
+
+        vertices = new float[(segmentCount + 1) * 2];
+        for (int i = 0; i <= segmentCount; i++) {
+            vertices[i * 2] = startX + i * segmentLength;
+            vertices[i * 2 + 1] = (float) (amplitude * Math.sin(2 * Math.PI * i / SEGMENTS_PER_WAVE));
+        }
+
+        final float endX = vertices[segmentCount * 2];
+        final float depth = diagonal + amplitude;
+
+        localFilledPath.reset();
+        localUnfilledPath.reset();
+        localFilledPath.moveTo(vertices[0], vertices[1]);
+        localUnfilledPath.moveTo(vertices[0], vertices[1]);
+        for (int i = 1; i <= segmentCount; i++) {
+            localFilledPath.lineTo(vertices[i * 2], vertices[i * 2 + 1]);
+            localUnfilledPath.lineTo(vertices[i * 2], vertices[i * 2 + 1]);
+        }
+        localFilledPath.lineTo(endX, -depth);
+        localFilledPath.lineTo(startX, -depth);
+        localFilledPath.close();
+        localUnfilledPath.lineTo(endX, depth);
+        localUnfilledPath.lineTo(startX, depth);
+        localUnfilledPath.close();
+    }
+
+    /**
+     * 生成填充和非填充区域
+     *
+     * @param centerX      波形中心点X坐标
+     * @param centerY      波形中心点Y坐标
+     * @param angle        分割线角度
+     * @param phase        相位（一个周期对应一个波长）
+     * @param filledPath   填充区域
+     * @param unfilledPath 非填充区域
+     */
+    void generate(float centerX, float centerY, float angle, float phase, Path filledPath, Path unfilledPath) {
+        float shift = (float) (phase - Math.floor(phase)) * waveLength;
+        matrix.setTranslate(shift, 0);
+        // 局部坐标系的y轴旋转后指向填充推进方向
+        matrix.postRotate(angle - 90);
+        matrix.postTranslate(centerX, centerY);
+
+        localFilledPath.transform(matrix, filledPath);
+        localUnfilledPath.transform(matrix, unfilledPath);
+    }
+}
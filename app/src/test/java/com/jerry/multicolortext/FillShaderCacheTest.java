@@ -0,0 +1,91 @@
+package com.jerry.multicolortext;
+
+import android.graphics.LinearGradient;
+import android.graphics.RadialGradient;
+import android.graphics.Shader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 填充着色器缓存的缓存键
+ * 图案位图在本地单元测试中无法创建，这里只覆盖渐变参数和尺寸
+ *
+ * @date 2026/10/19
+ */
+public class FillShaderCacheTest {
+    private static final float DELTA = 0.001f;
+    private static final int START_COLOR = 0xFFFF0000;
+    private static final int END_COLOR = 0xFF0000FF;
+
+    private FillShaderCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new FillShaderCache();
+        RenderMetrics.reset();
+        RenderMetrics.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        RenderMetrics.setEnabled(false);
+        RenderMetrics.reset();
+    }
+
+    private Shader obtain(int gradientType, int gradientAngle, int startColor, int endColor, int width, int height) {
+        return cache.obtain(gradientType, gradientAngle, startColor, endColor, null, width, height);
+    }
+
+    @Test
+    public void noGradientHasNoShader() {
+        assertNull(obtain(MultiColorTextView.GRADIENT_TYPE_NONE, 0, START_COLOR, END_COLOR, 100, 50));
+        assertNull(obtain(MultiColorTextView.GRADIENT_TYPE_NONE, 0, START_COLOR, END_COLOR, 100, 50));
+        assertEquals(0.5f, RenderMetrics.getCacheHitRate(RenderMetrics.CACHE_FILL_SHADER), DELTA);
+    }
+
+    @Test
+    public void gradientTypeSelectsShader() {
+        assertTrue(obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 0, START_COLOR, END_COLOR, 100, 50) instanceof LinearGradient);
+        assertTrue(obtain(MultiColorTextView.GRADIENT_TYPE_RADIAL, 0, START_COLOR, END_COLOR, 100, 50) instanceof RadialGradient);
+    }
+
+    @Test
+    public void sameInputsReuseShader() {
+        Shader shader = obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 45, START_COLOR, END_COLOR, 100, 50);
+        assertSame(shader, obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 45, START_COLOR, END_COLOR, 100, 50));
+        assertSame(shader, obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 45, START_COLOR, END_COLOR, 100, 50));
+        assertEquals(2 / 3.0f, RenderMetrics.getCacheHitRate(RenderMetrics.CACHE_FILL_SHADER), DELTA);
+    }
+
+    @Test
+    public void anyChangedInputRecreates() {
+        Shader shader = obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 0, START_COLOR, END_COLOR, 100, 50);
+        Shader angleChanged = obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 90, START_COLOR, END_COLOR, 100, 50);
+        assertNotSame(shader, angleChanged);
+        Shader startColorChanged = obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 90, END_COLOR, END_COLOR, 100, 50);
+        assertNotSame(angleChanged, startColorChanged);
+        Shader endColorChanged = obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 90, END_COLOR, START_COLOR, 100, 50);
+        assertNotSame(startColorChanged, endColorChanged);
+        Shader widthChanged = obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 90, END_COLOR, START_COLOR, 101, 50);
+        assertNotSame(endColorChanged, widthChanged);
+        Shader heightChanged = obtain(MultiColorTextView.GRADIENT_TYPE_LINEAR, 90, END_COLOR, START_COLOR, 101, 51);
+        assertNotSame(widthChanged, heightChanged);
+        Shader typeChanged = obtain(MultiColorTextView.GRADIENT_TYPE_RADIAL, 90, END_COLOR, START_COLOR, 101, 51);
+        assertNotSame(heightChanged, typeChanged);
+        assertEquals(0, RenderMetrics.getCacheHitRate(RenderMetrics.CACHE_FILL_SHADER), DELTA);
+    }
+
+    @Test
+    public void switchingBackToNoneDropsShader() {
+        obtain(MultiColorTextView.GRADIENT_TYPE_RADIAL, 0, START_COLOR, END_COLOR, 100, 50);
+        assertNull(obtain(MultiColorTextView.GRADIENT_TYPE_NONE, 0, START_COLOR, END_COLOR, 100, 50));
+    }
+}
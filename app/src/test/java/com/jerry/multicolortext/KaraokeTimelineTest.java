@@ -0,0 +1,85 @@
+package com.jerry.multicolortext;
+
+import com.jerry.multicolortext.MultiColorTextView.KaraokeEntry;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 卡拉OK时间轴的条目查找和偏移计算
+ *
+ * @date 2026/10/19
+ */
+public class KaraokeTimelineTest {
+    private static final float DELTA = 0.001f;
+
+    /**
+     * 4个字符，每个宽10
+     */
+    private static KaraokeTimeline createTimeline(KaraokeEntry... entries) {
+        KaraokeTimeline timeline = new KaraokeTimeline(Arrays.asList(entries));
+        timeline.setGlyphWidths(new float[]{10, 10, 10, 10});
+        return timeline;
+    }
+
+    @Test
+    public void totalWidthIsSumOfGlyphWidths() {
+        KaraokeTimeline timeline = new KaraokeTimeline(Collections.singletonList(new KaraokeEntry(0, 3, 0, 100)));
+        timeline.setGlyphWidths(new float[]{5, 7.5f, 2.5f});
+        assertEquals(15, timeline.getTotalWidth(), DELTA);
+    }
+
+    @Test
+    public void offsetIsZeroBeforeFirstEntry() {
+        KaraokeTimeline timeline = createTimeline(new KaraokeEntry(0, 2, 1000, 2000));
+        assertEquals(0, timeline.getOffset(0), DELTA);
+        assertEquals(0, timeline.getOffset(999), DELTA);
+    }
+
+    @Test
+    public void offsetInterpolatesWithinEntry() {
+        KaraokeTimeline timeline = createTimeline(new KaraokeEntry(0, 2, 1000, 2000));
+        assertEquals(0, timeline.getOffset(1000), DELTA);
+        assertEquals(10, timeline.getOffset(1500), DELTA);
+        assertEquals(20, timeline.getOffset(2000), DELTA);
+    }
+
+    @Test
+    public void offsetStaysAtEndOfPreviousEntryInGap() {
+        KaraokeTimeline timeline = createTimeline(new KaraokeEntry(0, 2, 0, 100), new KaraokeEntry(2, 4, 500, 600));
+        assertEquals(20, timeline.getOffset(300), DELTA);
+        assertEquals(30, timeline.getOffset(550), DELTA);
+        assertEquals(40, timeline.getOffset(10000), DELTA);
+    }
+
+    @Test
+    public void entriesAreSortedByStartTime() {
+        KaraokeTimeline timeline = createTimeline(new KaraokeEntry(2, 4, 500, 600), new KaraokeEntry(0, 2, 0, 100));
+        assertEquals(10, timeline.getOffset(50), DELTA);
+        assertEquals(30, timeline.getOffset(550), DELTA);
+        assertEquals(600, timeline.getEndTime());
+    }
+
+    @Test
+    public void zeroDurationEntryJumpsToEnd() {
+        KaraokeTimeline timeline = createTimeline(new KaraokeEntry(1, 3, 200, 200));
+        assertEquals(30, timeline.getOffset(200), DELTA);
+    }
+
+    @Test
+    public void glyphIndexOutOfRangeIsClamped() {
+        KaraokeTimeline timeline = createTimeline(new KaraokeEntry(-1, 10, 0, 100));
+        assertEquals(0, timeline.getOffset(0), DELTA);
+        assertEquals(40, timeline.getOffset(100), DELTA);
+    }
+
+    @Test
+    public void endTimeIsLatestEndTime() {
+        KaraokeTimeline timeline = createTimeline(new KaraokeEntry(0, 2, 0, 900), new KaraokeEntry(2, 4, 500, 600));
+        assertEquals(900, timeline.getEndTime());
+    }
+}
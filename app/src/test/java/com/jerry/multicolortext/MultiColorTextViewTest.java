@@ -0,0 +1,128 @@
+package com.jerry.multicolortext;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 控件中与绘制无关的计算：触摸位置与填充进度、分割线角度的换算，图层缓存的稳定时间
+ *
+ * @date 2026/10/19
+ */
+public class MultiColorTextViewTest {
+    private static final float DELTA = 0.001f;
+    private static final float SQRT_HALF = (float) Math.sqrt(0.5);
+
+    private static float[] getRectRange(float width, float height, float normalX, float normalY) {
+        float[] range = new float[2];
+        MultiColorTextView.getRectProjectionRange(width, height, normalX, normalY, range);
+        return range;
+    }
+
+    @Test
+    public void rectProjectionRangeAlongAxes() {
+        assertArrayEquals(new float[]{0, 100}, getRectRange(100, 50, 1, 0), DELTA);
+        assertArrayEquals(new float[]{0, 50}, getRectRange(100, 50, 0, 1), DELTA);
+        assertArrayEquals(new float[]{-100, 0}, getRectRange(100, 50, -1, 0), DELTA);
+        assertArrayEquals(new float[]{-50, 0}, getRectRange(100, 50, 0, -1), DELTA);
+    }
+
+    @Test
+    public void rectProjectionRangeAlongDiagonal() {
+        assertArrayEquals(new float[]{0, 150 * SQRT_HALF}, getRectRange(100, 50, SQRT_HALF, SQRT_HALF), DELTA);
+        assertArrayEquals(new float[]{-50 * SQRT_HALF, 100 * SQRT_HALF}, getRectRange(100, 50, SQRT_HALF, -SQRT_HALF), DELTA);
+    }
+
+    @Test
+    public void pointsProjectionRangeUsesExtremePoints() {
+        float[] diamond = {50, 0, 100, 25, 50, 50, 0, 25};
+        float[] range = new float[2];
+        MultiColorTextView.getPointsProjectionRange(diamond, 1, 0, range);
+        assertArrayEquals(new float[]{0, 100}, range, DELTA);
+        MultiColorTextView.getPointsProjectionRange(diamond, 0, -1, range);
+        assertArrayEquals(new float[]{-50, 0}, range, DELTA);
+    }
+
+    @Test
+    public void projectionProgressIsPositionInRange() {
+        float[] range = getRectRange(100, 50, 1, 0);
+        assertEquals(0.25f, MultiColorTextView.getProjectionProgress(25, 10, 1, 0, range), DELTA);
+        // 从右向左推进时，靠左的点填充得更晚
+        range = getRectRange(100, 50, -1, 0);
+        assertEquals(0.75f, MultiColorTextView.getProjectionProgress(25, 10, -1, 0, range), DELTA);
+    }
+
+    @Test
+    public void projectionProgressAtCornersAlongDiagonal() {
+        float[] range = getRectRange(100, 50, SQRT_HALF, SQRT_HALF);
+        assertEquals(0, MultiColorTextView.getProjectionProgress(0, 0, SQRT_HALF, SQRT_HALF, range), DELTA);
+        assertEquals(1, MultiColorTextView.getProjectionProgress(100, 50, SQRT_HALF, SQRT_HALF, range), DELTA);
+        assertEquals(0.5f, MultiColorTextView.getProjectionProgress(50, 25, SQRT_HALF, SQRT_HALF, range), DELTA);
+    }
+
+    @Test
+    public void projectionProgressIsClamped() {
+        float[] range = getRectRange(100, 50, 1, 0);
+        assertEquals(0, MultiColorTextView.getProjectionProgress(-20, 10, 1, 0, range), DELTA);
+        assertEquals(1, MultiColorTextView.getProjectionProgress(120, 10, 1, 0, range), DELTA);
+    }
+
+    @Test
+    public void sweepProgressIsClockwiseFromStartAngle() {
+        // 起始方向为12点钟（以3点钟方向为0度时是-90度）
+        assertEquals(0, MultiColorTextView.getSweepProgress(0, -10, -90), DELTA);
+        assertEquals(0.25f, MultiColorTextView.getSweepProgress(10, 0, -90), DELTA);
+        assertEquals(0.5f, MultiColorTextView.getSweepProgress(0, 10, -90), DELTA);
+        assertEquals(0.75f, MultiColorTextView.getSweepProgress(-10, 0, -90), DELTA);
+    }
+
+    @Test
+    public void touchAngleFollowsFinger() {
+        assertEquals(0, MultiColorTextView.getTouchAngle(10, 0, false));
+        assertEquals(90, MultiColorTextView.getTouchAngle(0, 10, false));
+        assertEquals(180, MultiColorTextView.getTouchAngle(-10, 0, false));
+        assertEquals(270, MultiColorTextView.getTouchAngle(0, -10, false));
+    }
+
+    @Test
+    public void sweepTouchAngleIsMeasuredFromTwelveOClock() {
+        assertEquals(0, MultiColorTextView.getTouchAngle(0, -10, true));
+        assertEquals(90, MultiColorTextView.getTouchAngle(10, 0, true));
+        assertEquals(180, MultiColorTextView.getTouchAngle(0, 10, true));
+        assertEquals(270, MultiColorTextView.getTouchAngle(-10, 0, true));
+    }
+
+    @Test
+    public void sweepStartFollowsFinger() {
+        // 按触摸角度设置后，扇形的起点恰好落在手指所在的方向上
+        float[][] touches = {{10, 0}, {7, 7}, {0, 10}, {-3, 9}, {-10, 0}, {-5, -8}, {0, -10}, {6, -6}};
+        for (float[] touch : touches) {
+            int angle = MultiColorTextView.getTouchAngle(touch[0], touch[1], true);
+            float progress = MultiColorTextView.getSweepProgress(touch[0], touch[1], angle - 90);
+            // 角度取整后起点与手指最多相差半度
+            assertEquals(0, Math.min(progress, 1 - progress), 0.5f / 360 + DELTA);
+        }
+    }
+
+    @Test
+    public void layerSettlesAfterDelaySinceLastChange() {
+        assertEquals(300, MultiColorTextView.getLayerSettleRemainingTime(1000, 300, 1000));
+        assertEquals(100, MultiColorTextView.getLayerSettleRemainingTime(1000, 300, 1200));
+        assertEquals(0, MultiColorTextView.getLayerSettleRemainingTime(1000, 300, 1300));
+        assertEquals(0, MultiColorTextView.getLayerSettleRemainingTime(1000, 300, 5000));
+    }
+
+    @Test
+    public void laterChangeExtendsLayerSettle() {
+        // 第一次检查时内容在等待期间又变化过，需要从最后一次变化重新计时
+        long firstChange = 1000, lastChange = 1250, check = firstChange + 300;
+        assertEquals(250, MultiColorTextView.getLayerSettleRemainingTime(lastChange, 300, check));
+        assertEquals(0, MultiColorTextView.getLayerSettleRemainingTime(lastChange, 300, check + 250));
+    }
+
+    @Test
+    public void zeroLayerSettleDelayCachesImmediately() {
+        assertEquals(0, MultiColorTextView.getLayerSettleRemainingTime(1000, 0, 1000));
+    }
+}
@@ -0,0 +1,128 @@
+package com.jerry.multicolortext;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * SVG Path数据解析（轮廓采样点和错误处理）
+ *
+ * @date 2026/10/19
+ */
+public class SvgPathShapeTest {
+    private static final float DELTA = 0.001f;
+    /**
+     * 每段曲线展开的采样点数，与解析器一致
+     */
+    private static final int CURVE_SAMPLE_COUNT = 8;
+
+    private static float[] parse(String data) {
+        SvgPathShape.Parser parser = new SvgPathShape.Parser(data);
+        parser.parse();
+        return parser.getPoints();
+    }
+
+    private static void assertLastPoint(float x, float y, float[] points) {
+        assertEquals(x, points[points.length - 2], DELTA);
+        assertEquals(y, points[points.length - 1], DELTA);
+    }
+
+    @Test
+    public void absoluteMoveAndLine() {
+        assertArrayEquals(new float[]{1, 2, 3, 4}, parse("M1 2 L3 4"), DELTA);
+    }
+
+    @Test
+    public void relativeCommandsAreOffsetByCurrentPoint() {
+        assertArrayEquals(new float[]{1, 2, 4, 6, 4, 10}, parse("m1,2 l3,4 v4"), DELTA);
+    }
+
+    @Test
+    public void horizontalAndVerticalLines() {
+        assertArrayEquals(new float[]{0, 0, 5, 0, 5, 7, 2, 7}, parse("M0 0 H5 V7 h-3"), DELTA);
+    }
+
+    @Test
+    public void implicitLineToAfterMoveTo() {
+        assertArrayEquals(new float[]{0, 0, 1, 1, 2, 0}, parse("M0 0 1 1 2 0"), DELTA);
+        assertArrayEquals(new float[]{1, 1, 2, 2, 4, 2}, parse("m1 1 1 1 2 0"), DELTA);
+    }
+
+    @Test
+    public void closeReturnsToSubpathStart() {
+        float[] points = parse("M10 10 L20 10 Z l0 5");
+        assertLastPoint(10, 15, points);
+    }
+
+    @Test
+    public void cubicCurveIsSampledAndEndsAtEndPoint() {
+        float[] points = parse("M0 0 C0 10 10 10 10 0");
+        assertEquals((1 + CURVE_SAMPLE_COUNT) * 2, points.length);
+        assertLastPoint(10, 0, points);
+        // t=0.5时的点
+        assertEquals(5, points[CURVE_SAMPLE_COUNT / 2 * 2], DELTA);
+        assertEquals(7.5f, points[CURVE_SAMPLE_COUNT / 2 * 2 + 1], DELTA);
+    }
+
+    @Test
+    public void smoothCubicReflectsPreviousControlPoint() {
+        float[] smooth = parse("M0 0 C0 10 10 10 10 0 S20 -10 20 0");
+        float[] explicit = parse("M0 0 C0 10 10 10 10 0 C10 -10 20 -10 20 0");
+        assertArrayEquals(explicit, smooth, DELTA);
+    }
+
+    @Test
+    public void quadraticAndSmoothQuadratic() {
+        float[] smooth = parse("M0 0 Q5 10 10 0 T20 0");
+        float[] explicit = parse("M0 0 Q5 10 10 0 Q15 -10 20 0");
+        assertArrayEquals(explicit, smooth, DELTA);
+        assertLastPoint(20, 0, smooth);
+    }
+
+    @Test
+    public void arcWithConcatenatedFlagsEndsAtEndPoint() {
+        float[] points = parse("M0 0 a1 1 0 00 2 0");
+        assertLastPoint(2, 0, points);
+    }
+
+    @Test
+    public void zeroRadiusArcIsLine() {
+        assertArrayEquals(new float[]{0, 0, 3, 4}, parse("M0 0 A0 0 0 0 1 3 4"), DELTA);
+    }
+
+    @Test
+    public void numbersWithExponentsAndWithoutSeparators() {
+        assertArrayEquals(new float[]{10, -0.5f, 0.25f, 0.5f}, parse("M1e1-.5L.25.5"), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingCommandThrows() {
+        parse("1 2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedCommandThrows() {
+        parse("M0 0 X1 1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingNumberThrows() {
+        parse("M0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidArcFlagThrows() {
+        parse("M0 0 A1 1 0 2 0 1 1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyDataThrows() {
+        parse("  ");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void obtainRejectsInvalidData() {
+        SvgPathShape.obtain("L");
+    }
+}
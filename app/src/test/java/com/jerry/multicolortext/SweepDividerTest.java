@@ -0,0 +1,88 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Path;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 扇形分割线的增量更新和重建
+ *
+ * @date 2026/10/19
+ */
+public class SweepDividerTest {
+    private SweepDivider divider;
+    private Path filledPath, unfilledPath;
+
+    @Before
+    public void setUp() {
+        divider = new SweepDivider();
+        filledPath = new Path();
+        unfilledPath = new Path();
+    }
+
+    @Test
+    public void firstGenerateRebuilds() {
+        assertTrue(divider.update(100, 80, -90));
+        assertTrue(divider.generate(0.3f, filledPath, unfilledPath));
+    }
+
+    @Test
+    public void advancingProgressAppendsWithoutRebuild() {
+        divider.update(100, 80, -90);
+        divider.generate(0.1f, filledPath, unfilledPath);
+        assertFalse(divider.generate(0.3f, filledPath, unfilledPath));
+        assertFalse(divider.generate(0.3f, filledPath, unfilledPath));
+        assertFalse(divider.generate(1, filledPath, unfilledPath));
+    }
+
+    @Test
+    public void rewindingProgressRebuilds() {
+        divider.update(100, 80, -90);
+        divider.generate(0.6f, filledPath, unfilledPath);
+        assertTrue(divider.generate(0.2f, filledPath, unfilledPath));
+    }
+
+    @Test
+    public void progressWithinSameSegmentDoesNotRebuild() {
+        divider.update(100, 80, -90);
+        divider.generate(0.30f, filledPath, unfilledPath);
+        // 同一段内后退只移动指针终点
+        assertFalse(divider.generate(0.26f, filledPath, unfilledPath));
+    }
+
+    @Test
+    public void unchangedParametersKeepVertices() {
+        divider.update(100, 80, -90);
+        divider.generate(0.3f, filledPath, unfilledPath);
+        assertFalse(divider.update(100, 80, -90));
+        assertFalse(divider.generate(0.5f, filledPath, unfilledPath));
+    }
+
+    @Test
+    public void angleChangeResetsFilledArea() {
+        divider.update(100, 80, -90);
+        divider.generate(0.3f, filledPath, unfilledPath);
+        assertTrue(divider.update(100, 80, 0));
+        assertTrue(divider.generate(0.5f, filledPath, unfilledPath));
+    }
+
+    @Test
+    public void sizeChangeResetsFilledArea() {
+        divider.update(100, 80, -90);
+        divider.generate(0.3f, filledPath, unfilledPath);
+        assertTrue(divider.update(100, 81, -90));
+        assertTrue(divider.generate(0.5f, filledPath, unfilledPath));
+    }
+
+    @Test
+    public void invalidateForcesRebuild() {
+        divider.update(100, 80, -90);
+        divider.generate(0.3f, filledPath, unfilledPath);
+        divider.invalidate();
+        assertTrue(divider.generate(0.5f, filledPath, unfilledPath));
+    }
+}
@@ -0,0 +1,99 @@
+package com.jerry.multicolortext;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 自动字号的二分查找和缓存键
+ *
+ * @date 2026/10/19
+ */
+public class TextAutoSizerTest {
+    private static final int[] PADDING = {1, 2, 3, 4};
+
+    /**
+     * 不超过给定字号时能放下，并记录判断次数
+     */
+    private static class CountingTester implements TextAutoSizer.Tester {
+        private final int maxFitSize;
+        private int count;
+
+        CountingTester(int maxFitSize) {
+            this.maxFitSize = maxFitSize;
+        }
+
+        @Override
+        public boolean fits(int textSize) {
+            count++;
+            return textSize <= maxFitSize;
+        }
+    }
+
+    @Test
+    public void searchFindsLargestFittingSize() {
+        for (int maxFitSize = 8; maxFitSize <= 112; maxFitSize++) {
+            assertEquals(maxFitSize, TextAutoSizer.search(8, 112, new CountingTester(maxFitSize)));
+        }
+    }
+
+    @Test
+    public void searchReturnsMaxWhenEverythingFits() {
+        assertEquals(112, TextAutoSizer.search(8, 112, new CountingTester(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void searchReturnsMinWhenNothingFits() {
+        assertEquals(8, TextAutoSizer.search(8, 112, new CountingTester(0)));
+    }
+
+    @Test
+    public void searchWithSingleSize() {
+        assertEquals(20, TextAutoSizer.search(20, 20, new CountingTester(20)));
+        assertEquals(20, TextAutoSizer.search(20, 20, new CountingTester(0)));
+    }
+
+    @Test
+    public void searchIsLogarithmic() {
+        CountingTester tester = new CountingTester(57);
+        TextAutoSizer.search(8, 112, tester);
+        // 105个候选字号最多判断7次
+        assertTrue(tester.count <= 7);
+    }
+
+    private static TextAutoSizer.Key createKey(String text, int width, int height, int[] padding, int shapeType,
+                                               int maxLines, int minTextSize, int maxTextSize) {
+        return new TextAutoSizer.Key(text, width, height, padding, shapeType, null, maxLines, null, minTextSize, maxTextSize);
+    }
+
+    @Test
+    public void keysWithSameInputsAreEqual() {
+        TextAutoSizer.Key key = createKey("Ag", 100, 50, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 112);
+        TextAutoSizer.Key other = createKey("Ag", 100, 50, new int[]{1, 2, 3, 4}, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 112);
+        assertEquals(key, other);
+        assertEquals(key.hashCode(), other.hashCode());
+    }
+
+    @Test
+    public void keysWithDifferentInputsAreNotEqual() {
+        TextAutoSizer.Key key = createKey("Ag", 100, 50, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 112);
+        assertNotEquals(key, createKey("Ab", 100, 50, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 112));
+        assertNotEquals(key, createKey("Ag", 101, 50, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 112));
+        assertNotEquals(key, createKey("Ag", 100, 51, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 112));
+        assertNotEquals(key, createKey("Ag", 100, 50, new int[]{1, 2, 3, 5}, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 112));
+        assertNotEquals(key, createKey("Ag", 100, 50, PADDING, MultiColorTextView.SHAPE_TYPE_CIRCLE, 1, 8, 112));
+        assertNotEquals(key, createKey("Ag", 100, 50, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 2, 8, 112));
+        assertNotEquals(key, createKey("Ag", 100, 50, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 1, 9, 112));
+        assertNotEquals(key, createKey("Ag", 100, 50, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 111));
+    }
+
+    @Test
+    public void nullTextIsTreatedAsEmpty() {
+        TextAutoSizer.Key key = createKey(null, 100, 50, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 112);
+        assertEquals(key, createKey("", 100, 50, PADDING, MultiColorTextView.SHAPE_TYPE_RECT, 1, 8, 112));
+        assertFalse(key.equals(null));
+    }
+}
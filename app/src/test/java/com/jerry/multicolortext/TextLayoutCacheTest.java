@@ -0,0 +1,98 @@
+package com.jerry.multicolortext;
+
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 多行排版缓存的缓存键和低版本截断
+ *
+ * @date 2026/10/19
+ */
+public class TextLayoutCacheTest {
+    private static final float DELTA = 0.001f;
+
+    private TextLayoutCache cache;
+    private TextPaint paint;
+
+    @Before
+    public void setUp() {
+        cache = new TextLayoutCache();
+        paint = new TextPaint();
+        RenderMetrics.reset();
+        RenderMetrics.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        RenderMetrics.setEnabled(false);
+        RenderMetrics.reset();
+    }
+
+    private StaticLayout obtain(String text, int width, int maxLines, Layout.Alignment alignment) {
+        return cache.obtain(paint, text, width, maxLines, alignment);
+    }
+
+    @Test
+    public void sameInputsReuseLayout() {
+        StaticLayout layout = obtain("Ag", 100, 2, Layout.Alignment.ALIGN_CENTER);
+        assertSame(layout, obtain("Ag", 100, 2, Layout.Alignment.ALIGN_CENTER));
+        assertSame(layout, cache.getLayout());
+    }
+
+    @Test
+    public void anyChangedInputRebuilds() {
+        StaticLayout layout = obtain("Ag", 100, 2, Layout.Alignment.ALIGN_CENTER);
+        StaticLayout textChanged = obtain("Ab", 100, 2, Layout.Alignment.ALIGN_CENTER);
+        assertNotSame(layout, textChanged);
+        StaticLayout widthChanged = obtain("Ab", 101, 2, Layout.Alignment.ALIGN_CENTER);
+        assertNotSame(textChanged, widthChanged);
+        StaticLayout maxLinesChanged = obtain("Ab", 101, 3, Layout.Alignment.ALIGN_CENTER);
+        assertNotSame(widthChanged, maxLinesChanged);
+        assertNotSame(maxLinesChanged, obtain("Ab", 101, 3, Layout.Alignment.ALIGN_NORMAL));
+    }
+
+    @Test
+    public void widthIsClampedToOne() {
+        StaticLayout layout = obtain("Ag", 0, 2, Layout.Alignment.ALIGN_CENTER);
+        assertSame(layout, obtain("Ag", -5, 2, Layout.Alignment.ALIGN_CENTER));
+        assertSame(layout, obtain("Ag", 1, 2, Layout.Alignment.ALIGN_CENTER));
+    }
+
+    @Test
+    public void nullTextIsTreatedAsEmpty() {
+        StaticLayout layout = obtain(null, 100, 2, Layout.Alignment.ALIGN_CENTER);
+        assertSame(layout, obtain("", 100, 2, Layout.Alignment.ALIGN_CENTER));
+    }
+
+    @Test
+    public void desiredWidthIsMeasuredOncePerText() {
+        cache.obtainLayoutWidth(paint, "Ag", 100);
+        cache.obtainLayoutWidth(paint, "Ag", 50);
+        cache.obtainLayoutWidth(paint, "Ag", Integer.MAX_VALUE);
+        // 只有第一次测量，可用宽度变化不会重新测量
+        assertEquals(2 / 3.0f, RenderMetrics.getCacheHitRate(RenderMetrics.CACHE_TEXT_LAYOUT), DELTA);
+        cache.obtainLayoutWidth(paint, "Ab", 100);
+        assertEquals(2 / 4.0f, RenderMetrics.getCacheHitRate(RenderMetrics.CACHE_TEXT_LAYOUT), DELTA);
+    }
+
+    @Test
+    public void truncateKeepsTextUpToLineEnd() {
+        assertEquals("first line", TextLayoutCache.truncate("first line second line", 10));
+        assertEquals("whole", TextLayoutCache.truncate("whole", 100));
+    }
+
+    @Test
+    public void truncateDropsOnlyTrailingWhitespace() {
+        assertEquals("  first", TextLayoutCache.truncate("  first \n second", 9));
+        assertEquals("", TextLayoutCache.truncate("   ", 3));
+    }
+}
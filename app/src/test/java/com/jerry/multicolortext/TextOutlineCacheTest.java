@@ -0,0 +1,79 @@
+package com.jerry.multicolortext;
+
+import android.graphics.Paint;
+import android.graphics.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 文字轮廓缓存的缓存键、平移和被省略行的内容
+ *
+ * @date 2026/10/19
+ */
+public class TextOutlineCacheTest {
+    private static final float DELTA = 0.001f;
+
+    private TextOutlineCache cache;
+    private Paint paint;
+
+    @Before
+    public void setUp() {
+        cache = new TextOutlineCache();
+        paint = new Paint();
+        RenderMetrics.reset();
+        RenderMetrics.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        RenderMetrics.setEnabled(false);
+        RenderMetrics.reset();
+    }
+
+    @Test
+    public void sameInputsKeepOutlineAndVersion() {
+        Path outline = cache.obtain(paint, "Ag", null, 10, 20);
+        int version = cache.getVersion();
+        assertSame(outline, cache.obtain(paint, "Ag", null, 10, 20));
+        assertEquals(version, cache.getVersion());
+        assertEquals(0.5f, RenderMetrics.getCacheHitRate(RenderMetrics.CACHE_TEXT_OUTLINE), DELTA);
+    }
+
+    @Test
+    public void offsetChangeOnlyMovesOutline() {
+        cache.obtain(paint, "Ag", null, 10, 20);
+        int version = cache.getVersion();
+        cache.obtain(paint, "Ag", null, 11, 20);
+        // 位置变化时不重新提取，但描边等依赖轮廓的缓存需要更新
+        assertEquals(0.5f, RenderMetrics.getCacheHitRate(RenderMetrics.CACHE_TEXT_OUTLINE), DELTA);
+        assertNotEquals(version, cache.getVersion());
+    }
+
+    @Test
+    public void textChangeExtractsAgain() {
+        cache.obtain(paint, "Ag", null, 10, 20);
+        int version = cache.getVersion();
+        cache.obtain(paint, "Ab", null, 10, 20);
+        assertEquals(0, RenderMetrics.getCacheHitRate(RenderMetrics.CACHE_TEXT_OUTLINE), DELTA);
+        assertNotEquals(version, cache.getVersion());
+    }
+
+    @Test
+    public void ellipsizedLineKeepsVisibleTextAndAddsEllipsis() {
+        String text = "first line\nsecond line is long";
+        assertEquals("second\u2026", TextOutlineCache.getEllipsizedLineText(text, 11, 6));
+        assertEquals("\u2026", TextOutlineCache.getEllipsizedLineText(text, 11, 0));
+    }
+
+    @Test
+    public void ellipsisStartBeyondTextIsClamped() {
+        assertEquals("abc\u2026", TextOutlineCache.getEllipsizedLineText("abc", 0, 10));
+        assertEquals("\u2026", TextOutlineCache.getEllipsizedLineText("abc", 3, 10));
+    }
+}
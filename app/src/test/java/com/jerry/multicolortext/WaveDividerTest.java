@@ -0,0 +1,51 @@
+package com.jerry.multicolortext;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 水波纹分割线的顶点缓存
+ *
+ * @date 2026/10/19
+ */
+public class WaveDividerTest {
+    private WaveDivider divider;
+
+    @Before
+    public void setUp() {
+        divider = new WaveDivider();
+    }
+
+    @Test
+    public void firstUpdateTessellates() {
+        assertTrue(divider.update(100, 80, 48, 6));
+    }
+
+    @Test
+    public void sameParametersHitCache() {
+        divider.update(100, 80, 48, 6);
+        assertFalse(divider.update(100, 80, 48, 6));
+    }
+
+    @Test
+    public void anyChangedParameterTessellates() {
+        divider.update(100, 80, 48, 6);
+        assertTrue(divider.update(101, 80, 48, 6));
+        assertTrue(divider.update(101, 81, 48, 6));
+        assertTrue(divider.update(101, 81, 47, 6));
+        assertTrue(divider.update(101, 81, 47, 5));
+    }
+
+    @Test
+    public void clampedWaveLengthHitsCache() {
+        // 小于1的波长按1处理，缓存键也应使用限制后的值
+        divider.update(100, 80, 0.5f, 6);
+        assertFalse(divider.update(100, 80, 0.5f, 6));
+        assertFalse(divider.update(100, 80, 0, 6));
+        assertFalse(divider.update(100, 80, 1, 6));
+        assertTrue(divider.update(100, 80, 2, 6));
+    }
+}